@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtering a block of samples one sample at a time with in and out compared to the batch process method, a fourth
+ * order FilterBiquad compared to four stacked FilterSIIR, a chain of different filter classes called one level at a
+ * time compared to a FilterChain, and many channels filtered with one FilterSIIR object each compared to a
+ * FilterBank. The score is per sample.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class FilterBenchmark {
+  private static final int N = 4096;
+  private static final int CHANNELS = 10000;
+
+  private final double[] levels = new double[N];
+  private final double[] result = new double[N];
+  private Filter filter;
+  private final Filter[] siirStack = new Filter[4];
+  private Filter biquad;
+  private Filter[] stages;
+  private Filter chain;
+  private final double[] channelLevels = new double[CHANNELS];
+  private final FilterSIIR[] channelFilters = new FilterSIIR[CHANNELS];
+  private final FilterBank bank = new FilterBank(CHANNELS, 10);
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(17);
+    for (int i = 0; i < N; ++i) {
+      levels[i] = random.nextDouble();
+    }
+    filter = new FilterSIIR(0, 10);
+    for (int i = 0; i < siirStack.length; ++i) {
+      siirStack[i] = new FilterSIIR(0, 10);
+    }
+    biquad = FilterBiquad.lowPass(4, 20, 1000);
+    stages = newStages();
+    chain = new FilterChain(newStages());
+    for (int c = 0; c < CHANNELS; ++c) {
+      channelLevels[c] = random.nextDouble();
+      channelFilters[c] = new FilterSIIR(0, 10);
+    }
+  }
+
+  private static Filter[] newStages() {
+    return new Filter[]{new FilterSIIR(0, 4), new FilterFIR(new double[]{0.25, 0.5, 0.25}), new FilterMovingAverage(8),
+        FilterBiquad.lowPass(2, 20, 1000)};
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N)
+  public double[] siirScalar() {
+    for (int i = 0; i < N; ++i) {
+      filter.in(levels[i]);
+      result[i] = filter.out();
+    }
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N)
+  public double[] siirProcess() {
+    filter.process(levels, 0, N, result);
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N)
+  public double[] siirStackProcess() {
+    siirStack[0].process(levels, 0, N, result);
+    for (int i = 1; i < siirStack.length; ++i) {
+      siirStack[i].process(result, 0, N, result);
+    }
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N)
+  public double[] biquadScalar() {
+    for (int i = 0; i < N; ++i) {
+      biquad.in(levels[i]);
+      result[i] = biquad.out();
+    }
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N)
+  public double[] biquadProcess() {
+    biquad.process(levels, 0, N, result);
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N)
+  public double[] chainScalar() {
+    for (int i = 0; i < N; ++i) {
+      double x = levels[i];
+      for (Filter f : stages) {
+        x = f.inout(x);
+      }
+      result[i] = x;
+    }
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N)
+  public double[] chainProcess() {
+    chain.process(levels, 0, N, result);
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CHANNELS)
+  public FilterSIIR[] channelFilters() {
+    for (int c = 0; c < CHANNELS; ++c) {
+      channelFilters[c].in(channelLevels[c]);
+    }
+    return channelFilters;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(CHANNELS)
+  public FilterBank channelBank() {
+    bank.in(channelLevels);
+    return bank;
+  }
+}
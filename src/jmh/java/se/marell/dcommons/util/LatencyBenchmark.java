@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip latency between two threads. In each group the ping thread puts an element in one queue and waits
+ * until the echo thread has moved it back through a second queue. The score of the ping method is the round trip
+ * time with its percentiles. The echo method only polls once per call and its score is not of interest.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Group)
+public class LatencyBenchmark {
+  private static final int SIZE = 1024;
+  private static final Integer ELEMENT = 17;
+
+  private final QueueBuffer<Integer> queueBufferPing = new QueueBuffer<Integer>(SIZE);
+  private final QueueBuffer<Integer> queueBufferPong = new QueueBuffer<Integer>(SIZE);
+  private final SpscQueueBuffer<Integer> spscPing = new SpscQueueBuffer<Integer>(SIZE);
+  private final SpscQueueBuffer<Integer> spscPong = new SpscQueueBuffer<Integer>(SIZE);
+  private final MpmcQueueBuffer<Integer> mpmcPing = new MpmcQueueBuffer<Integer>(SIZE);
+  private final MpmcQueueBuffer<Integer> mpmcPong = new MpmcQueueBuffer<Integer>(SIZE);
+  private final ArrayBlockingQueue<Integer> arrayBlockingQueuePing = new ArrayBlockingQueue<Integer>(SIZE);
+  private final ArrayBlockingQueue<Integer> arrayBlockingQueuePong = new ArrayBlockingQueue<Integer>(SIZE);
+
+  // True if the ping thread gave up waiting for the element at the end of an iteration, so that it is still on its
+  // way. Only accessed by the ping thread, which then waits for it instead of sending another one.
+  private boolean pending;
+
+  @Benchmark
+  @Group("queueBuffer")
+  @GroupThreads(1)
+  public Integer queueBufferPing(Control control) {
+    if (!pending) {
+      queueBufferPing.offer(ELEMENT);
+    }
+    Integer e;
+    while ((e = queueBufferPong.getFirst()) == null) {
+      // The echo thread may already have stopped when the iteration ends
+      if (control.stopMeasurement) {
+        pending = true;
+        return null;
+      }
+    }
+    pending = false;
+    return e;
+  }
+
+  @Benchmark
+  @Group("queueBuffer")
+  @GroupThreads(1)
+  public Integer queueBufferEcho() {
+    Integer e = queueBufferPing.getFirst();
+    if (e != null) {
+      queueBufferPong.offer(e);
+    }
+    return e;
+  }
+
+  @Benchmark
+  @Group("spscQueueBuffer")
+  @GroupThreads(1)
+  public Integer spscQueueBufferPing(Control control) {
+    if (!pending) {
+      spscPing.putLast(ELEMENT);
+    }
+    Integer e;
+    while ((e = spscPong.getFirst()) == null) {
+      // The echo thread may already have stopped when the iteration ends
+      if (control.stopMeasurement) {
+        pending = true;
+        return null;
+      }
+    }
+    pending = false;
+    return e;
+  }
+
+  @Benchmark
+  @Group("spscQueueBuffer")
+  @GroupThreads(1)
+  public Integer spscQueueBufferEcho() {
+    Integer e = spscPing.getFirst();
+    if (e != null) {
+      spscPong.putLast(e);
+    }
+    return e;
+  }
+
+  @Benchmark
+  @Group("mpmcQueueBuffer")
+  @GroupThreads(1)
+  public Integer mpmcQueueBufferPing(Control control) {
+    if (!pending) {
+      mpmcPing.offer(ELEMENT);
+    }
+    Integer e;
+    while ((e = mpmcPong.poll()) == null) {
+      // The echo thread may already have stopped when the iteration ends
+      if (control.stopMeasurement) {
+        pending = true;
+        return null;
+      }
+    }
+    pending = false;
+    return e;
+  }
+
+  @Benchmark
+  @Group("mpmcQueueBuffer")
+  @GroupThreads(1)
+  public Integer mpmcQueueBufferEcho() {
+    Integer e = mpmcPing.poll();
+    if (e != null) {
+      mpmcPong.offer(e);
+    }
+    return e;
+  }
+
+  @Benchmark
+  @Group("arrayBlockingQueue")
+  @GroupThreads(1)
+  public Integer arrayBlockingQueuePing(Control control) {
+    if (!pending) {
+      arrayBlockingQueuePing.offer(ELEMENT);
+    }
+    Integer e;
+    while ((e = arrayBlockingQueuePong.poll()) == null) {
+      // The echo thread may already have stopped when the iteration ends
+      if (control.stopMeasurement) {
+        pending = true;
+        return null;
+      }
+    }
+    pending = false;
+    return e;
+  }
+
+  @Benchmark
+  @Group("arrayBlockingQueue")
+  @GroupThreads(1)
+  public Integer arrayBlockingQueueEcho() {
+    Integer e = arrayBlockingQueuePing.poll();
+    if (e != null) {
+      arrayBlockingQueuePong.offer(e);
+    }
+    return e;
+  }
+}
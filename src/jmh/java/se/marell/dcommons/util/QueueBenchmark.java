@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayDeque;
+import java.util.LinkedList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded throughput of the util queues compared to the java.util queues. Each invocation inserts a batch
+ * of elements and then removes them, so the rings wrap around. The score is per inserted or removed element.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class QueueBenchmark {
+  private static final int SIZE = 1024;
+  private static final int BATCH = 100;
+  private static final Integer ELEMENT = 17;
+
+  private static class Sample {
+    int value;
+  }
+
+  private final QueueBuffer<Integer> queueBuffer = new QueueBuffer<Integer>(SIZE);
+  private final MutableElementQueue<Sample> mutableElementQueue =
+      new MutableElementQueue<Sample>(new Sample[SIZE], Sample::new);
+  private final SpscQueueBuffer<Integer> spscQueueBuffer = new SpscQueueBuffer<Integer>(SIZE);
+  private final MpmcQueueBuffer<Integer> mpmcQueueBuffer = new MpmcQueueBuffer<Integer>(SIZE);
+  private final ArrayDeque<Integer> arrayDeque = new ArrayDeque<Integer>(SIZE);
+  private final ArrayBlockingQueue<Integer> arrayBlockingQueue = new ArrayBlockingQueue<Integer>(SIZE);
+  private final LinkedList<Integer> linkedList = new LinkedList<Integer>();
+
+  @Benchmark
+  @OperationsPerInvocation(2 * BATCH)
+  public void queueBuffer(Blackhole bh) {
+    for (int i = 0; i < BATCH; ++i) {
+      queueBuffer.putLast(ELEMENT);
+    }
+    for (int i = 0; i < BATCH; ++i) {
+      bh.consume(queueBuffer.getFirst());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(2 * BATCH)
+  public void mutableElementQueue(Blackhole bh) {
+    for (int i = 0; i < BATCH; ++i) {
+      mutableElementQueue.putLast().value = i;
+    }
+    for (int i = 0; i < BATCH; ++i) {
+      bh.consume(mutableElementQueue.getFirst().value);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(2 * BATCH)
+  public void spscQueueBuffer(Blackhole bh) {
+    for (int i = 0; i < BATCH; ++i) {
+      spscQueueBuffer.putLast(ELEMENT);
+    }
+    for (int i = 0; i < BATCH; ++i) {
+      bh.consume(spscQueueBuffer.getFirst());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(2 * BATCH)
+  public void mpmcQueueBuffer(Blackhole bh) {
+    for (int i = 0; i < BATCH; ++i) {
+      mpmcQueueBuffer.offer(ELEMENT);
+    }
+    for (int i = 0; i < BATCH; ++i) {
+      bh.consume(mpmcQueueBuffer.poll());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(2 * BATCH)
+  public void arrayDeque(Blackhole bh) {
+    for (int i = 0; i < BATCH; ++i) {
+      arrayDeque.offer(ELEMENT);
+    }
+    for (int i = 0; i < BATCH; ++i) {
+      bh.consume(arrayDeque.poll());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(2 * BATCH)
+  public void arrayBlockingQueue(Blackhole bh) {
+    for (int i = 0; i < BATCH; ++i) {
+      arrayBlockingQueue.offer(ELEMENT);
+    }
+    for (int i = 0; i < BATCH; ++i) {
+      bh.consume(arrayBlockingQueue.poll());
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(2 * BATCH)
+  public void linkedList(Blackhole bh) {
+    for (int i = 0; i < BATCH; ++i) {
+      linkedList.offer(ELEMENT);
+    }
+    for (int i = 0; i < BATCH; ++i) {
+      bh.consume(linkedList.poll());
+    }
+  }
+}
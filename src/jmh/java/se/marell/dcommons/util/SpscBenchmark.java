@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hand-over between one producer and one consumer thread. Each group measures the producer and the consumer
+ * side separately. The primary score counts insert and remove attempts, including attempts on a full or empty
+ * queue, so compare the offered and polled secondary scores, which only count successful transfers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Group)
+public class SpscBenchmark {
+  /**
+   * Successful transfers of one thread, reported as operations per time unit.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Transfers {
+    public long offered;
+    public long polled;
+
+    @Setup(Level.Iteration)
+    public void clean() {
+      offered = 0;
+      polled = 0;
+    }
+  }
+
+  private static final int SIZE = 1024;
+  private static final Integer ELEMENT = 17;
+
+  private final QueueBuffer<Integer> queueBuffer = new QueueBuffer<Integer>(SIZE);
+  private final SpscQueueBuffer<Integer> spscQueueBuffer = new SpscQueueBuffer<Integer>(SIZE);
+  private final ArrayBlockingQueue<Integer> arrayBlockingQueue = new ArrayBlockingQueue<Integer>(SIZE);
+
+  @Benchmark
+  @Group("queueBuffer")
+  @GroupThreads(1)
+  public boolean queueBufferOffer(Transfers t) {
+    if (queueBuffer.offer(ELEMENT)) {
+      ++t.offered;
+      return true;
+    }
+    return false;
+  }
+
+  @Benchmark
+  @Group("queueBuffer")
+  @GroupThreads(1)
+  public Integer queueBufferPoll(Transfers t) {
+    Integer e = queueBuffer.getFirst();
+    if (e != null) {
+      ++t.polled;
+    }
+    return e;
+  }
+
+  @Benchmark
+  @Group("spscQueueBuffer")
+  @GroupThreads(1)
+  public boolean spscQueueBufferOffer(Transfers t) {
+    if (spscQueueBuffer.putLast(ELEMENT)) {
+      ++t.offered;
+      return true;
+    }
+    return false;
+  }
+
+  @Benchmark
+  @Group("spscQueueBuffer")
+  @GroupThreads(1)
+  public Integer spscQueueBufferPoll(Transfers t) {
+    Integer e = spscQueueBuffer.getFirst();
+    if (e != null) {
+      ++t.polled;
+    }
+    return e;
+  }
+
+  @Benchmark
+  @Group("arrayBlockingQueue")
+  @GroupThreads(1)
+  public boolean arrayBlockingQueueOffer(Transfers t) {
+    if (arrayBlockingQueue.offer(ELEMENT)) {
+      ++t.offered;
+      return true;
+    }
+    return false;
+  }
+
+  @Benchmark
+  @Group("arrayBlockingQueue")
+  @GroupThreads(1)
+  public Integer arrayBlockingQueuePoll(Transfers t) {
+    Integer e = arrayBlockingQueue.poll();
+    if (e != null) {
+      ++t.polled;
+    }
+    return e;
+  }
+}
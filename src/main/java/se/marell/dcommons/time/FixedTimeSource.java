@@ -50,8 +50,11 @@ public class FixedTimeSource implements TimeSource {
     return millis;
   }
 
+  /**
+   * @return The fixed time converted to nanoseconds
+   */
   @Override
   public long nanoTime() {
-    return millis * 1000;
+    return millis * 1000000;
   }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Waits on the monitor until it is notified by a thread changing the state. Uses no CPU while waiting but
+ * the waiting thread has to be rescheduled by the operating system when it is woken up.
+ */
+public class BlockingWaitStrategy implements WaitStrategy {
+  // Notifying a monitor inflates its lock, which makes every later lock operation on it expensive,
+  // so only notify when some thread is actually waiting
+  private final AtomicInteger waiters = new AtomicInteger();
+
+  @Override
+  public void await(Object monitor, long timeoutNanos) throws InterruptedException {
+    waiters.incrementAndGet();
+    try {
+      if (timeoutNanos == Long.MAX_VALUE) {
+        monitor.wait();
+      } else {
+        long millis = timeoutNanos / 1000000;
+        int nanos = (int) (timeoutNanos % 1000000);
+        // A zero timeout would mean waiting forever
+        monitor.wait(millis, millis == 0 && nanos == 0 ? 1 : nanos);
+      }
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  @Override
+  public void idle(int idleCount) {
+  }
+
+  @Override
+  public void signal(Object monitor) {
+    if (waiters.get() > 0) {
+      monitor.notifyAll();
+    }
+  }
+}
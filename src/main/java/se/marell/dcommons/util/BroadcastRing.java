@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A ring of pre-allocated mutable elements written by one producer thread and read by any number of consumer
+ * cursors, where every cursor sees every element. Compared to one queue per consumer the elements are neither copied
+ * nor allocated: the producer fills in a slot in place and all consumers read that same slot.
+ * </p>
+ * <p>
+ * Each consumer owns a Cursor with its own padded sequence counter. A cursor can be created with dependencies on
+ * other cursors, in which case it only sees elements that all of its dependencies have released. This makes it
+ * possible to build a pipeline of stages, for example an alert stage that only handles records after they have been
+ * persisted. A slot is reused by the producer first when every cursor has released it, so a slow consumer holds
+ * back the producer instead of losing elements.
+ * </p>
+ * <p>
+ * The producer claims the next slot, writes to it and publishes it. A consumer looks at its next element with peek
+ * and releases it when done, after which the producer may overwrite it. Elements must not be accessed after being
+ * published by the producer or released by a consumer.
+ * </p>
+ * Usage example:
+ * <pre>
+ * BroadcastRing&lt;Sample&gt; ring = new BroadcastRing&lt;Sample&gt;(new Sample[1024], Sample::new);
+ * BroadcastRing&lt;Sample&gt;.Cursor persist = ring.newCursor();
+ * BroadcastRing&lt;Sample&gt;.Cursor aggregate = ring.newCursor();
+ * BroadcastRing&lt;Sample&gt;.Cursor alert = ring.newCursor(persist);
+ *
+ * // Producer thread
+ * Sample s = ring.claim();
+ * if (s != null) {
+ *   s.setValue(value);
+ *   ring.publish();
+ * }
+ *
+ * // Persist thread
+ * persist.process(sample -&gt; store(sample), 100);
+ * </pre>
+ * <p>
+ * Cursors should be created before the producer starts publishing. A cursor created later starts at the most
+ * recently published element. A consumer that stops consuming must be removed with removeCursor, otherwise the
+ * producer stalls when the ring is full.
+ * </p>
+ */
+public class BroadcastRing<E> {
+  /**
+   * A consumer position in the ring. A cursor must only be used by one thread at a time.
+   */
+  public final class Cursor {
+    // Sequence of the last released element
+    private final PaddedAtomicLong sequence;
+    private final Cursor[] dependencies;
+    // Last seen sequence available to this cursor, only accessed by the consumer thread
+    private long cachedAvailable;
+
+    private Cursor(long initialSequence, Cursor[] dependencies) {
+      this.sequence = new PaddedAtomicLong(initialSequence);
+      this.dependencies = dependencies;
+      this.cachedAvailable = initialSequence;
+    }
+
+    /**
+     * @return Sequence of the last element released by this cursor, -1 if none
+     */
+    public long getSequence() {
+      return sequence.get();
+    }
+
+    /**
+     * @return Number of elements available to this cursor and not yet released
+     */
+    public int available() {
+      cachedAvailable = availableSequence();
+      return (int) (cachedAvailable - sequence.get());
+    }
+
+    /**
+     * Look at the next element for this cursor without releasing it.
+     *
+     * @return Next element or null if no element is available
+     */
+    public E peek() {
+      long next = sequence.get() + 1;
+      if (next > cachedAvailable) {
+        cachedAvailable = availableSequence();
+        if (next > cachedAvailable) {
+          return null;
+        }
+      }
+      return ring[(int) next & mask];
+    }
+
+    /**
+     * Release the element returned by the last peek, making it visible to cursors depending on this one and,
+     * when all cursors have released it, reusable by the producer.
+     *
+     * @throws IllegalStateException if no element is available
+     */
+    public void release() {
+      long current = sequence.get();
+      if (current >= cachedAvailable) {
+        throw new IllegalStateException("No element to release");
+      }
+      sequence.lazySet(current + 1);
+    }
+
+    /**
+     * Pass the available elements, at most max, to consumer and then release all of them at once.
+     *
+     * @param consumer Called for each element in order
+     * @param max      Max number of elements to process
+     * @return Number of processed elements
+     */
+    public int process(Consumer<? super E> consumer, int max) {
+      long current = sequence.get();
+      cachedAvailable = availableSequence();
+      int n = (int) Math.min(cachedAvailable - current, max);
+      for (int i = 1; i <= n; ++i) {
+        consumer.accept(ring[(int) (current + i) & mask]);
+      }
+      if (n > 0) {
+        sequence.lazySet(current + n);
+      }
+      return n;
+    }
+
+    private long availableSequence() {
+      long available = published.get();
+      for (Cursor c : dependencies) {
+        available = Math.min(available, c.sequence.get());
+      }
+      return available;
+    }
+  }
+
+  private final E[] ring;
+  private final int mask;
+  // Sequence of the last published element, written by the producer
+  private final PaddedAtomicLong published = new PaddedAtomicLong(-1);
+  private volatile Cursor[] cursors;
+  // The fields below are only accessed by the producer thread
+  private long claimed = -1;
+  private long cachedGating = -1;
+
+  /**
+   * Create a new BroadcastRing.
+   *
+   * @param initArray   Empty array. It's length will be the ring size and must be a power of two
+   * @param initializer Will be used to create objects in initArray
+   */
+  public BroadcastRing(E[] initArray, MutableElementQueue.Initializer<E> initializer) {
+    if (initArray.length == 0 || Integer.bitCount(initArray.length) != 1) {
+      throw new IllegalArgumentException("Invalid ring size:" + initArray.length);
+    }
+    this.ring = initArray;
+    this.mask = initArray.length - 1;
+    for (int i = 0; i < initArray.length; ++i) {
+      initArray[i] = initializer.create();
+    }
+    this.cursors = newCursorArray(0);
+  }
+
+  // Arrays of the inner class Cursor cannot be created directly since its type depends on E
+  @SuppressWarnings("unchecked")
+  private Cursor[] newCursorArray(int length) {
+    return (Cursor[]) new BroadcastRing<?>.Cursor[length];
+  }
+
+  /**
+   * @return Number of elements in the ring
+   */
+  public int getMaxSize() {
+    return ring.length;
+  }
+
+  /**
+   * @return Sequence of the last published element, -1 if none
+   */
+  public long getPublishedSequence() {
+    return published.get();
+  }
+
+  /**
+   * Create a new consumer cursor.
+   *
+   * @param dependencies Cursors that must release an element before it is available to the new cursor
+   * @return New cursor
+   */
+  @SafeVarargs
+  public final synchronized Cursor newCursor(Cursor... dependencies) {
+    long start = published.get();
+    // Copy the dependencies element by element, the varargs array itself is never stored
+    Cursor[] deps = newCursorArray(dependencies.length);
+    for (int i = 0; i < deps.length; ++i) {
+      Cursor d = dependencies[i];
+      if (!contains(cursors, d)) {
+        throw new IllegalArgumentException("Dependency is not a cursor of this ring");
+      }
+      start = Math.min(start, d.sequence.get());
+      deps[i] = d;
+    }
+    Cursor c = new Cursor(start, deps);
+    Cursor[] a = Arrays.copyOf(cursors, cursors.length + 1);
+    a[cursors.length] = c;
+    cursors = a;
+    return c;
+  }
+
+  /**
+   * Stop a cursor from holding back the producer.
+   *
+   * @param cursor Cursor to remove
+   * @throws IllegalArgumentException if another cursor depends on cursor
+   */
+  public synchronized void removeCursor(Cursor cursor) {
+    Cursor[] a = cursors.clone();
+    int n = 0;
+    for (Cursor c : cursors) {
+      if (contains(c.dependencies, cursor)) {
+        throw new IllegalArgumentException("Cursor is a dependency of another cursor");
+      }
+      if (c != cursor) {
+        a[n++] = c;
+      }
+    }
+    cursors = Arrays.copyOf(a, n);
+  }
+
+  /**
+   * Claim the next slot in the ring. Must only be called by the producer thread. The returned element must be
+   * published with publish before the next call to claim.
+   *
+   * @return Element to fill in or null if the slowest cursor has not yet released the slot
+   */
+  public E claim() {
+    long next = published.get() + 1;
+    long wrapPoint = next - ring.length;
+    if (wrapPoint > cachedGating) {
+      cachedGating = minSequence(next - 1);
+      if (wrapPoint > cachedGating) {
+        return null;
+      }
+    }
+    claimed = next;
+    return ring[(int) next & mask];
+  }
+
+  /**
+   * Make the element returned by the last claim visible to the consumers. Must only be called by the producer
+   * thread.
+   *
+   * @throws IllegalStateException if no element has been claimed
+   */
+  public void publish() {
+    if (claimed <= published.get()) {
+      throw new IllegalStateException("No claimed element");
+    }
+    published.lazySet(claimed);
+  }
+
+  /**
+   * Claim a batch of free slots, at most max, pass each of them to writer and then publish all of them at once.
+   * Must only be called by the producer thread.
+   *
+   * @param writer Called for each claimed element in order
+   * @param max    Max number of elements to publish
+   * @return Number of published elements
+   */
+  public int publishAll(Consumer<? super E> writer, int max) {
+    long current = published.get();
+    long limit = current + Math.min(max, ring.length);
+    if (limit - ring.length > cachedGating) {
+      cachedGating = minSequence(current);
+    }
+    int n = (int) (Math.min(limit, cachedGating + ring.length) - current);
+    for (int i = 1; i <= n; ++i) {
+      writer.accept(ring[(int) (current + i) & mask]);
+    }
+    if (n > 0) {
+      claimed = current + n;
+      published.lazySet(claimed);
+    }
+    return n;
+  }
+
+  private long minSequence(long defaultValue) {
+    long min = defaultValue;
+    for (Cursor c : cursors) {
+      min = Math.min(min, c.sequence.get());
+    }
+    return min;
+  }
+
+  private static boolean contains(Object[] a, Object o) {
+    for (Object e : a) {
+      if (e == o) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
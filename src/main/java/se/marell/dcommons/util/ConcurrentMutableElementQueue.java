@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A queue with pre-allocated mutable elements like MutableElementQueue, for any number of producer threads and one
+ * consumer thread. Inserting an element is split in two phases so that several producers can fill in elements in
+ * parallel without locks:
+ * </p>
+ * <ol>
+ * <li>claim reserves the next position with a compare-and-set and returns its sequence number. The element for the
+ * sequence is returned by slot and is only accessible to the claiming producer.</li>
+ * <li>publish makes the element visible to the consumer when the producer has filled it in.</li>
+ * </ol>
+ * <p>
+ * Each slot records the sequence it was last published for, so the consumer never sees a claimed element before
+ * it has been published even if a later claimed element is published first. The consumer looks at the first element
+ * with peek and releases it with release when done, after which the slot may be claimed again.
+ * </p>
+ * Usage example:
+ * <pre>
+ * ConcurrentMutableElementQueue&lt;Sample&gt; q =
+ *     new ConcurrentMutableElementQueue&lt;Sample&gt;(new Sample[1024], Sample::new);
+ *
+ * // Producer threads
+ * long seq = q.claim();
+ * if (seq &gt;= 0) {
+ *   q.slot(seq).setValue(value);
+ *   q.publish(seq);
+ * }
+ *
+ * // Consumer thread
+ * Sample s = q.peek();
+ * if (s != null) {
+ *   handle(s);
+ *   q.release();
+ * }
+ * </pre>
+ */
+public class ConcurrentMutableElementQueue<E> {
+  private final E[] queue;
+  private final int mask;
+  // Sequence most recently published in each slot
+  private final AtomicLongArray published;
+  // Sequence of the next element to retrieve, written by the consumer
+  private final PaddedAtomicLong head = new PaddedAtomicLong();
+  // Sequence of the next element to claim
+  private final PaddedAtomicLong tail = new PaddedAtomicLong();
+
+  /**
+   * Create a new ConcurrentMutableElementQueue.
+   *
+   * @param initArray   Empty array. It's length will be the queue size and must be a power of two
+   * @param initializer Will be used to create objects in initArray
+   */
+  public ConcurrentMutableElementQueue(E[] initArray, MutableElementQueue.Initializer<E> initializer) {
+    if (initArray.length == 0 || Integer.bitCount(initArray.length) != 1) {
+      throw new IllegalArgumentException("Invalid queue size:" + initArray.length);
+    }
+    this.queue = initArray;
+    this.mask = initArray.length - 1;
+    this.published = new AtomicLongArray(initArray.length);
+    for (int i = 0; i < initArray.length; ++i) {
+      initArray[i] = initializer.create();
+      published.set(i, -1);
+    }
+  }
+
+  /**
+   * @return true if queue is empty
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * @return true if queue is full
+   */
+  public boolean isFull() {
+    return size() >= queue.length;
+  }
+
+  /**
+   * The returned size includes claimed elements that are not yet published. It is a snapshot that may be out of
+   * date as soon as it is returned when other threads are operating on the queue.
+   *
+   * @return number of elements in queue
+   */
+  public int size() {
+    // Read head before tail so that the difference never becomes negative
+    long h = head.get();
+    long t = tail.get();
+    return (int) Math.min(t - h, queue.length);
+  }
+
+  /**
+   * @return number of free elements in queue
+   */
+  public int getFree() {
+    return queue.length - size();
+  }
+
+  /**
+   * @return Max number of elements in queue
+   */
+  public int getMaxSize() {
+    return queue.length;
+  }
+
+  /**
+   * Reserve the next position at the end of this queue. May be called by any thread.
+   *
+   * @return Sequence of the reserved position or -1 if the queue is full
+   */
+  public long claim() {
+    while (true) {
+      long t = tail.get();
+      if (t - head.get() >= queue.length) {
+        return -1;
+      }
+      if (tail.compareAndSet(t, t + 1)) {
+        return t;
+      }
+    }
+  }
+
+  /**
+   * Get the element for a sequence returned by claim. The element must not be accessed after it has been
+   * published.
+   *
+   * @param sequence Sequence returned by claim
+   * @return Element to fill in
+   */
+  public E slot(long sequence) {
+    return queue[(int) sequence & mask];
+  }
+
+  /**
+   * Make a claimed element visible to the consumer. The element must have been filled in by the calling thread.
+   *
+   * @param sequence Sequence returned by claim
+   */
+  public void publish(long sequence) {
+    published.lazySet((int) sequence & mask, sequence);
+  }
+
+  /**
+   * Look at the element in the first position in this queue without removing it. Must only be called by the
+   * consumer thread.
+   *
+   * @return Element at first position in queue or null if it is not yet published
+   */
+  public E peek() {
+    long h = head.get();
+    int index = (int) h & mask;
+    if (published.get(index) != h) {
+      return null;
+    }
+    return queue[index];
+  }
+
+  /**
+   * Remove the first element, making its slot available to the producers. The element must not be accessed after
+   * it has been released. Must only be called by the consumer thread.
+   *
+   * @throws IllegalStateException if the first element is not published
+   */
+  public void release() {
+    long h = head.get();
+    if (published.get((int) h & mask) != h) {
+      throw new IllegalStateException("No element to release");
+    }
+    head.lazySet(h + 1);
+  }
+
+  /**
+   * Pass the published elements at the front of the queue, at most max, to consumer and then release all of them
+   * at once. Stops at the first element that is claimed but not yet published. Must only be called by the consumer
+   * thread.
+   *
+   * @param consumer Called for each element in order
+   * @param max      Max number of elements to remove
+   * @return Number of removed elements
+   */
+  public int drainTo(Consumer<? super E> consumer, int max) {
+    long h = head.get();
+    int n = 0;
+    while (n < max) {
+      int index = (int) (h + n) & mask;
+      if (published.get(index) != h + n) {
+        break;
+      }
+      consumer.accept(queue[index]);
+      ++n;
+    }
+    if (n > 0) {
+      head.lazySet(h + n);
+    }
+    return n;
+  }
+}
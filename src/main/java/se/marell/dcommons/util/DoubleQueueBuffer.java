@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import java.util.NoSuchElementException;
+import java.util.function.DoubleConsumer;
+
+/**
+ * <p>
+ * A QueueBuffer for double values. Elements are inserted at the end of the queue (putLast operation) and retrieved from
+ * the front of the queue (getFirst operation).
+ * </p>
+ * <p>
+ * The values are stored in a double[] without boxing, so no objects are allocated when elements are inserted or
+ * retrieved and the buffered values are contiguous in memory.
+ * </p>
+ * <p>
+ * A queue can be made growable with setGrowLimit, in which case a full queue doubles its capacity, keeping the
+ * order of the elements, until the limit is reached.
+ * </p>
+ */
+public class DoubleQueueBuffer {
+  private int firstElement = 0;
+  private int lastElement = 0;
+  private int nofElements = 0;
+  private int maxQueueSize;
+  private double[] queue;
+  private int growLimit;
+
+  /**
+   * Create a new DoubleQueueBuffer with the specified maximum number of elements.
+   *
+   * @param maxQueueSize Max number of items in queue. Must be larger than 0.
+   */
+  public DoubleQueueBuffer(int maxQueueSize) {
+    if (maxQueueSize <= 0) {
+      throw new IllegalArgumentException("Invalid maxQueueSize:" + maxQueueSize);
+    }
+    this.maxQueueSize = maxQueueSize;
+    this.queue = new double[maxQueueSize];
+    this.growLimit = maxQueueSize;
+  }
+
+  /**
+   * Make the queue growable. When a value is inserted in a full queue, the capacity is doubled, but never beyond
+   * growLimit. The order of the values is kept.
+   *
+   * @param growLimit Max capacity the queue may grow to. Not growable if not larger than the current capacity.
+   */
+  public synchronized void setGrowLimit(int growLimit) {
+    this.growLimit = growLimit;
+  }
+
+  /**
+   * @return Max capacity the queue may grow to
+   */
+  public synchronized int getGrowLimit() {
+    return Math.max(growLimit, maxQueueSize);
+  }
+
+  /**
+   * @return true if queue is empty
+   */
+  public boolean isEmpty() {
+    return nofElements == 0;
+  }
+
+  /**
+   * @return true if queue is full
+   */
+  public boolean isFull() {
+    return nofElements >= maxQueueSize;
+  }
+
+  /**
+   * @return number of elements in queue
+   */
+  public int size() {
+    return nofElements;
+  }
+
+  /**
+   * @return number of free elements in queue
+   */
+  public int getFree() {
+    return maxQueueSize - nofElements;
+  }
+
+  /**
+   * @return Max number of elements in DoubleQueueBuffer with its current capacity
+   */
+  public int getMaxSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * Look at the value in the first position in this queue without removing it from the queue.
+   *
+   * @return Value at first position in queue
+   * @throws NoSuchElementException if the queue is empty
+   */
+  public synchronized double peek() {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    return queue[firstElement];
+  }
+
+  /**
+   * Remove the value in the first position in this queue and return it as the value of the function.
+   *
+   * @return Value at first position in queue
+   * @throws NoSuchElementException if the queue is empty
+   */
+  public synchronized double getFirst() {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    double value = queue[firstElement];
+    firstElement = incrementIndex(firstElement);
+    nofElements--;
+    return value;
+  }
+
+  /**
+   * Put a value at the end of this queue.
+   *
+   * @param value Value
+   * @throws IllegalStateException if the queue is full
+   */
+  public synchronized void putLast(double value) {
+    if (!offer(value)) {
+      throw new IllegalStateException("Queue is full");
+    }
+  }
+
+  /**
+   * Put a value at the end of this queue if there is room for it.
+   *
+   * @param value Value
+   * @return true if the value was inserted, false if the queue is full
+   */
+  public synchronized boolean offer(double value) {
+    if (isFull() && !grow(nofElements + 1)) {
+      return false;
+    }
+    queue[lastElement] = value;
+    lastElement = incrementIndex(lastElement);
+    nofElements++;
+    return true;
+  }
+
+  /**
+   * Return where a value is in the queue.
+   * The return value is the value's distance to the front of the queue.
+   * The return value -1 indicates that the value is not in the queue.
+   *
+   * @param value Value
+   * @return int distance to value from front of queue
+   */
+  public synchronized int search(double value) {
+    int index = firstElement;
+    for (int distance = 0; distance < nofElements; ++distance) {
+      if (Double.compare(queue[index], value) == 0) {
+        return distance;
+      }
+      index = incrementIndex(index);
+    }
+    return -1;
+  }
+
+  /**
+   * Remove up to max values from the front of this queue and pass them in order to consumer.
+   * The queue's lock is held during the whole batch, also while the consumer is called.
+   *
+   * @param consumer Receiver of the removed values
+   * @param max      Max number of values to remove
+   * @return Number of removed values
+   */
+  public synchronized int drainTo(DoubleConsumer consumer, int max) {
+    int n = Math.min(max, nofElements);
+    int index = firstElement;
+    int count = 0;
+    try {
+      while (count < n) {
+        double value = queue[index];
+        index = incrementIndex(index);
+        ++count;
+        consumer.accept(value);
+      }
+    } finally {
+      firstElement = index;
+      nofElements -= count;
+    }
+    return count;
+  }
+
+  /**
+   * Remove up to len values from the front of this queue and copy them in order to dst.
+   *
+   * @param dst Destination array
+   * @param off Position in dst of the first removed value
+   * @param len Max number of values to remove
+   * @return Number of removed values
+   */
+  public synchronized int drainTo(double[] dst, int off, int len) {
+    int n = Math.min(len, nofElements);
+    if (n <= 0) {
+      return 0;
+    }
+    int first = Math.min(n, maxQueueSize - firstElement);
+    System.arraycopy(queue, firstElement, dst, off, first);
+    System.arraycopy(queue, 0, dst, off + first, n - first);
+    firstElement = wrapIndex(firstElement + n);
+    nofElements -= n;
+    return n;
+  }
+
+  /**
+   * Put up to len values from src at the end of this queue, as many as there is room for.
+   *
+   * @param src Source array
+   * @param off Position in src of the first value to insert
+   * @param len Max number of values to insert
+   * @return Number of inserted values
+   */
+  public synchronized int putAll(double[] src, int off, int len) {
+    if (len > maxQueueSize - nofElements) {
+      grow(nofElements + len);
+    }
+    int n = Math.min(len, maxQueueSize - nofElements);
+    if (n <= 0) {
+      return 0;
+    }
+    int first = Math.min(n, maxQueueSize - lastElement);
+    System.arraycopy(src, off, queue, lastElement, first);
+    System.arraycopy(src, off + first, queue, 0, n - first);
+    lastElement = wrapIndex(lastElement + n);
+    nofElements += n;
+    return n;
+  }
+
+  /**
+   * Step the index one step forward in queue. Wrap it to 0 if end of array is reached.
+   *
+   * @param index int
+   * @return int index' new position
+   */
+  private int incrementIndex(int index) {
+    // next - maxQueueSize is negative, all ones after the shift, until the end of the array is reached
+    int next = index + 1;
+    return next & ((next - maxQueueSize) >> 31);
+  }
+
+  /**
+   * Grow the capacity to at least minCapacity by doubling it, but not beyond the grow limit.
+   * The values are moved to the start of the new array.
+   *
+   * @param minCapacity Wanted capacity
+   * @return true if the capacity is at least minCapacity
+   */
+  private boolean grow(int minCapacity) {
+    if (maxQueueSize >= growLimit) {
+      return maxQueueSize >= minCapacity;
+    }
+    long newCapacity = maxQueueSize;
+    while (newCapacity < minCapacity) {
+      newCapacity *= 2;
+    }
+    newCapacity = Math.min(newCapacity, growLimit);
+    double[] newQueue = new double[(int) newCapacity];
+    int first = Math.min(nofElements, maxQueueSize - firstElement);
+    System.arraycopy(queue, firstElement, newQueue, 0, first);
+    System.arraycopy(queue, 0, newQueue, first, nofElements - first);
+    queue = newQueue;
+    maxQueueSize = newQueue.length;
+    firstElement = 0;
+    lastElement = nofElements;
+    return maxQueueSize >= minCapacity;
+  }
+
+  /**
+   * Wrap an index that has been stepped at most maxQueueSize positions forward.
+   *
+   * @param index int
+   * @return int index in the range 0..maxQueueSize-1
+   */
+  private int wrapIndex(int index) {
+    // Subtract maxQueueSize only if index - maxQueueSize is not negative
+    return index - (maxQueueSize & ~((index - maxQueueSize) >> 31));
+  }
+}
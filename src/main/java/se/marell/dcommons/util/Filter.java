@@ -64,4 +64,12 @@ public class Filter {
   public void set(double level) {
     in = out = level;
   }
+
+  // Input a block of levels in[off..off+len) and store the output level after each input in out[off..off+len).
+  // The result is the same as calling inout for each level. in and out may be the same array.
+  public void process(double[] in, int off, int len, double[] out) {
+    for (int i = off; i < off + len; ++i) {
+      out[i] = inout(in[i]);
+    }
+  }
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+/**
+ * <p>
+ * FilterBiquad performs IIR-filtering with a cascade of second order sections. Each section filters the output of
+ * the previous one according to the direct form II transposed formulas:
+ * </p>
+ * <pre>
+ * y = b0 * x + z1
+ * z1 = b1 * x - a1 * y + z2
+ * z2 = b2 * x - a2 * y
+ * </pre>
+ * <p>
+ * The coefficients of all sections are kept in one array with five coefficients b0, b1, b2, a1, a2 per section,
+ * normalized so that a0 is 1, and the state in another array with z1, z2 per section.
+ * </p>
+ * <p>
+ * lowPass, highPass and bandPass design Butterworth filters with the bilinear transform, given the cutoff frequency
+ * and the sample rate in the same unit. An odd order adds one first order section.
+ * </p>
+ * Usage example:
+ * <pre>
+ * Filter filter = FilterBiquad.lowPass(4, 100, 1000);
+ * ...
+ * filter.process(samples, 0, samples.length, samples);
+ * </pre>
+ */
+public class FilterBiquad extends Filter {
+  private final double[] coefficients; // b0, b1, b2, a1, a2 per section
+  private final double[] state;        // z1, z2 per section
+
+  /**
+   * Create a cascade of second order sections with level 0.
+   *
+   * @param coefficients b0, b1, b2, a1, a2 for each section, normalized so that a0 is 1
+   */
+  public FilterBiquad(double[] coefficients) {
+    this(0, coefficients);
+  }
+
+  /**
+   * Create a cascade of second order sections in steady state for a constant input level.
+   *
+   * @param level        Initial input level
+   * @param coefficients b0, b1, b2, a1, a2 for each section, normalized so that a0 is 1
+   */
+  public FilterBiquad(double level, double[] coefficients) {
+    if (coefficients.length == 0 || coefficients.length % 5 != 0) {
+      throw new IllegalArgumentException("Invalid number of coefficients:" + coefficients.length);
+    }
+    this.coefficients = coefficients.clone();
+    this.state = new double[coefficients.length / 5 * 2];
+    set(level);
+  }
+
+  /**
+   * Design a Butterworth low-pass filter.
+   *
+   * @param order      Filter order, larger than 0
+   * @param cutoff     Cutoff (-3 dB) frequency, larger than 0 and less than sampleRate / 2
+   * @param sampleRate Sample rate
+   * @return A new filter
+   */
+  public static FilterBiquad lowPass(int order, double cutoff, double sampleRate) {
+    return new FilterBiquad(butterworth(order, cutoff, sampleRate, false));
+  }
+
+  /**
+   * Design a Butterworth high-pass filter.
+   *
+   * @param order      Filter order, larger than 0
+   * @param cutoff     Cutoff (-3 dB) frequency, larger than 0 and less than sampleRate / 2
+   * @param sampleRate Sample rate
+   * @return A new filter
+   */
+  public static FilterBiquad highPass(int order, double cutoff, double sampleRate) {
+    return new FilterBiquad(butterworth(order, cutoff, sampleRate, true));
+  }
+
+  /**
+   * Design a band-pass filter as a cascade of a Butterworth high-pass and a Butterworth low-pass filter.
+   *
+   * @param order      Order of each of the high-pass and low-pass filters, larger than 0
+   * @param lowCutoff  Lower cutoff frequency
+   * @param highCutoff Upper cutoff frequency, larger than lowCutoff and less than sampleRate / 2
+   * @param sampleRate Sample rate
+   * @return A new filter
+   */
+  public static FilterBiquad bandPass(int order, double lowCutoff, double highCutoff, double sampleRate) {
+    if (!(lowCutoff < highCutoff)) {
+      throw new IllegalArgumentException("Invalid cutoff:" + lowCutoff + "-" + highCutoff);
+    }
+    return cascade(highPass(order, lowCutoff, sampleRate), lowPass(order, highCutoff, sampleRate));
+  }
+
+  /**
+   * Create a filter with the sections of the given filters in order, with level 0.
+   *
+   * @param filters Filters to cascade
+   * @return A new filter
+   */
+  public static FilterBiquad cascade(FilterBiquad... filters) {
+    int n = 0;
+    for (FilterBiquad f : filters) {
+      n += f.coefficients.length;
+    }
+    double[] c = new double[n];
+    int pos = 0;
+    for (FilterBiquad f : filters) {
+      System.arraycopy(f.coefficients, 0, c, pos, f.coefficients.length);
+      pos += f.coefficients.length;
+    }
+    return new FilterBiquad(c);
+  }
+
+  /**
+   * @return Number of second order sections
+   */
+  public int getSections() {
+    return coefficients.length / 5;
+  }
+
+  /**
+   * @return A copy of the coefficients, b0, b1, b2, a1, a2 for each section
+   */
+  public double[] getCoefficients() {
+    return coefficients.clone();
+  }
+
+  // Input to filter
+  @Override
+  public void in(double level) {
+    in = level;
+    double x = level;
+    for (int c = 0, s = 0; c < coefficients.length; c += 5, s += 2) {
+      double y = coefficients[c] * x + state[s];
+      state[s] = coefficients[c + 1] * x - coefficients[c + 3] * y + state[s + 1];
+      state[s + 1] = coefficients[c + 2] * x - coefficients[c + 4] * y;
+      x = y;
+    }
+    out = x;
+  }
+
+  // Input a block of levels. Each section filters the whole block before the next section starts, keeping its
+  // coefficients and state in local variables. The block is passed through out between the sections.
+  @Override
+  public void process(double[] in, int off, int len, double[] out) {
+    if (len <= 0) {
+      return;
+    }
+    // Read the last level before it is overwritten when filtering in place
+    this.in = in[off + len - 1];
+    double[] src = in;
+    for (int c = 0, s = 0; c < coefficients.length; c += 5, s += 2) {
+      final double b0 = coefficients[c];
+      final double b1 = coefficients[c + 1];
+      final double b2 = coefficients[c + 2];
+      final double a1 = coefficients[c + 3];
+      final double a2 = coefficients[c + 4];
+      double z1 = state[s];
+      double z2 = state[s + 1];
+      for (int i = off; i < off + len; ++i) {
+        double x = src[i];
+        double y = b0 * x + z1;
+        z1 = b1 * x - a1 * y + z2;
+        z2 = b2 * x - a2 * y;
+        out[i] = y;
+      }
+      state[s] = z1;
+      state[s + 1] = z2;
+      src = out;
+    }
+    this.out = out[off + len - 1];
+  }
+
+  // Set filter level, the state is set to the steady state for a constant input level
+  @Override
+  public void set(double level) {
+    in = level;
+    double x = level;
+    for (int c = 0, s = 0; c < coefficients.length; c += 5, s += 2) {
+      double gain = (coefficients[c] + coefficients[c + 1] + coefficients[c + 2]) /
+          (1 + coefficients[c + 3] + coefficients[c + 4]);
+      double y = gain * x;
+      state[s + 1] = coefficients[c + 2] * x - coefficients[c + 4] * y;
+      state[s] = coefficients[c + 1] * x - coefficients[c + 3] * y + state[s + 1];
+      x = y;
+    }
+    out = x;
+  }
+
+  private static double[] butterworth(int order, double cutoff, double sampleRate, boolean highPass) {
+    if (order <= 0) {
+      throw new IllegalArgumentException("Invalid order:" + order);
+    }
+    if (!(cutoff > 0 && cutoff < sampleRate / 2)) {
+      throw new IllegalArgumentException("Invalid cutoff:" + cutoff);
+    }
+    double[] c = new double[(order + 1) / 2 * 5];
+    double w0 = 2 * Math.PI * cutoff / sampleRate;
+    double cos = Math.cos(w0);
+    double sin = Math.sin(w0);
+    int pos = 0;
+    for (int k = 0; k < order / 2; ++k) {
+      // Quality factor of the k:th pair of complex conjugate poles
+      double q = 1 / (2 * Math.sin(Math.PI * (2 * k + 1) / (2 * order)));
+      double alpha = sin / (2 * q);
+      double a0 = 1 + alpha;
+      double b = highPass ? (1 + cos) / 2 : (1 - cos) / 2;
+      c[pos++] = b / a0;
+      c[pos++] = (highPass ? -2 * b : 2 * b) / a0;
+      c[pos++] = b / a0;
+      c[pos++] = -2 * cos / a0;
+      c[pos++] = (1 - alpha) / a0;
+    }
+    if (order % 2 == 1) {
+      // The real pole as a first order section
+      double k = Math.tan(w0 / 2);
+      double a0 = 1 + k;
+      c[pos++] = (highPass ? 1 : k) / a0;
+      c[pos++] = (highPass ? -1 : k) / a0;
+      c[pos++] = 0;
+      c[pos++] = (k - 1) / a0;
+      c[pos] = 0;
+    }
+    return c;
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import se.marell.dcommons.time.DefaultTimeSource;
+import se.marell.dcommons.time.TimeSource;
+
+/**
+ * <p>
+ * FilterExponential performs exponential filtering with a time constant instead of a fixed sample rate, for input
+ * levels that arrive at irregular intervals. Between two input levels the output approaches the last input level
+ * according to the formula:
+ * outLevel(t) = inLevel + (outLevel(t0) - inLevel) * exp(-(t - t0) / tau)
+ * where t0 is the time of the last input and tau the time constant. This is the response of a first order low-pass
+ * filter, such as an RC circuit, to an input held constant between the samples. After tau the output has moved 63%
+ * of the way to the input level, after 5 * tau more than 99%.
+ * </p>
+ * <p>
+ * The output is evaluated when it is read, so a channel without new input levels costs nothing until out is called.
+ * </p>
+ * <p>
+ * The time is either given explicitly as timestamps in milliseconds, for example the sample times of a sensor, or
+ * read as the elapsed time from TimeSource.nanoTime by the methods without a time. The two must not be mixed in the
+ * same filter since they have different origins. The first time given or read after creation or set starts the
+ * filter without any decay. A time earlier than the time of the last input or output is treated as the same time.
+ * </p>
+ * Usage example:
+ * <pre>
+ * FilterExponential filter = new FilterExponential(0, 500);
+ * ...
+ * filter.in(level, sampleTimeMillis);
+ * ...
+ * double level = filter.out(nowMillis);
+ * </pre>
+ */
+public class FilterExponential extends Filter {
+  private static final long NANOS_PER_MILLI = 1000000;
+  private final double tauMillis;
+  private final double tauNanos;
+  private final TimeSource timeSource;
+  private boolean started;  // false until the first time has been given or read
+  private long timeNanos;   // Time of the output level in out
+
+  public FilterExponential(double tauMillis) {
+    this(0, tauMillis);
+  }
+
+  public FilterExponential(double level, double tauMillis) {
+    this(level, tauMillis, new DefaultTimeSource());
+  }
+
+  /**
+   * @param level      Initial level
+   * @param tauMillis  Time constant in milliseconds, larger than 0
+   * @param timeSource Source of the elapsed time for the methods without a time
+   */
+  public FilterExponential(double level, double tauMillis, TimeSource timeSource) {
+    super(level);
+    if (!(tauMillis > 0)) {
+      throw new IllegalArgumentException("Invalid tauMillis:" + tauMillis);
+    }
+    this.tauMillis = tauMillis;
+    this.tauNanos = tauMillis * NANOS_PER_MILLI;
+    this.timeSource = timeSource;
+  }
+
+  public double getTauMillis() {
+    return tauMillis;
+  }
+
+  // Input to filter at the current time
+  @Override
+  public void in(double level) {
+    advance(timeSource.nanoTime());
+    in = level;
+  }
+
+  // Input to filter at the given time
+  public void in(double level, long timeMillis) {
+    advance(timeMillis * NANOS_PER_MILLI);
+    in = level;
+  }
+
+  // Output from filter at the current time
+  @Override
+  public double out() {
+    advance(timeSource.nanoTime());
+    return out;
+  }
+
+  // Output from filter at the given time
+  public double out(long timeMillis) {
+    advance(timeMillis * NANOS_PER_MILLI);
+    return out;
+  }
+
+  // Input a block of levels, reading the current time once for each level
+  @Override
+  public void process(double[] in, int off, int len, double[] out) {
+    for (int i = off; i < off + len; ++i) {
+      advance(timeSource.nanoTime());
+      this.in = in[i];
+      out[i] = this.out;
+    }
+  }
+
+  // Input a block of levels with their timestamps in timeMillis[off..off+len) and store the output level at the
+  // time of each input in out[off..off+len). The result is the same as calling in(level, time) and out(time) for
+  // each level. in and out may be the same array.
+  public void process(double[] in, long[] timeMillis, int off, int len, double[] out) {
+    for (int i = off; i < off + len; ++i) {
+      advance(timeMillis[i] * NANOS_PER_MILLI);
+      this.in = in[i];
+      out[i] = this.out;
+    }
+  }
+
+  // Set filter level, the next time given or read starts the filter
+  @Override
+  public void set(double level) {
+    super.set(level);
+    started = false;
+  }
+
+  // Move the output level forward to the time, so that it is only calculated once for each time it is read at
+  private void advance(long timeNanos) {
+    if (!started) {
+      started = true;
+      this.timeNanos = timeNanos;
+    } else if (timeNanos > this.timeNanos) {
+      out = in + (out - in) * Math.exp(-(timeNanos - this.timeNanos) / tauNanos);
+      this.timeNanos = timeNanos;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+/**
+ * FilterFIR performs finite impulse response filtering according to the formula:
+ * outLevel = c[0] * in[n] + c[1] * in[n - 1] + ... + c[N - 1] * in[n - N + 1]
+ * where c are the coefficients and in[n] is the latest input level. The past input levels are kept twice in a
+ * circular buffer of twice the number of coefficients, so the sum is calculated over contiguous memory without
+ * wrapping the index.
+ */
+public class FilterFIR extends Filter {
+  private final double[] coefficients;
+  private final double[] history; // Past input levels, newest at index pos, stored twice
+  private int pos;
+
+  public FilterFIR(double[] coefficients) {
+    this(0, coefficients);
+  }
+
+  public FilterFIR(double level, double[] coefficients) {
+    if (coefficients.length == 0) {
+      throw new IllegalArgumentException("No coefficients");
+    }
+    this.coefficients = coefficients.clone();
+    this.history = new double[2 * coefficients.length];
+    set(level);
+  }
+
+  // Input to filter
+  @Override
+  public void in(double level) {
+    in = level;
+    final int taps = coefficients.length;
+    pos = pos == 0 ? taps - 1 : pos - 1;
+    history[pos] = level;
+    history[pos + taps] = level;
+    double sum = 0;
+    for (int k = 0; k < taps; ++k) {
+      sum += coefficients[k] * history[pos + k];
+    }
+    out = sum;
+  }
+
+  // Input a block of levels with the history position in a local variable
+  @Override
+  public void process(double[] in, int off, int len, double[] out) {
+    if (len <= 0) {
+      return;
+    }
+    final double[] coefficients = this.coefficients;
+    final double[] history = this.history;
+    final int taps = coefficients.length;
+    int pos = this.pos;
+    double level = 0;
+    for (int i = off; i < off + len; ++i) {
+      level = in[i];
+      pos = pos == 0 ? taps - 1 : pos - 1;
+      history[pos] = level;
+      history[pos + taps] = level;
+      double sum = 0;
+      for (int k = 0; k < taps; ++k) {
+        sum += coefficients[k] * history[pos + k];
+      }
+      out[i] = sum;
+    }
+    this.pos = pos;
+    this.in = level;
+    this.out = out[off + len - 1];
+  }
+
+  // Set filter level, the output level is the response to a constant input level
+  @Override
+  public void set(double level) {
+    for (int i = 0; i < history.length; ++i) {
+      history[i] = level;
+    }
+    pos = 0;
+    double sum = 0;
+    for (double c : coefficients) {
+      sum += c * level;
+    }
+    in = level;
+    out = sum;
+  }
+}
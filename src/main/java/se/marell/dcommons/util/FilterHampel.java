@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+/**
+ * <p>
+ * FilterHampel replaces outliers with the median of the last length input levels. A level is an outlier when it
+ * differs from the median by more than threshold times the scaled median absolute deviation (MAD) of the window,
+ * otherwise it is passed through unchanged. The MAD is scaled by 1.4826 to estimate the standard deviation of
+ * normally distributed levels, so a threshold of 3 corresponds to the common three sigma rule.
+ * </p>
+ * <p>
+ * The median is maintained by a FilterMedian in O(log length) per level. The MAD is selected from a preallocated
+ * scratch array in O(length) per level. No objects are allocated.
+ * </p>
+ */
+public class FilterHampel extends Filter {
+  private static final double MAD_SCALE = 1.4826;
+  private final FilterMedian median;
+  private final double[] window;  // Last length input levels
+  private final double[] scratch; // Absolute deviations from the median
+  private final double threshold;
+  private int index;              // Position of the oldest level in window
+
+  public FilterHampel(int length, double threshold) {
+    this(0, length, threshold);
+  }
+
+  public FilterHampel(double level, int length, double threshold) {
+    if (length <= 0) {
+      throw new IllegalArgumentException("Invalid length:" + length);
+    }
+    if (!(threshold >= 0)) {
+      throw new IllegalArgumentException("Invalid threshold:" + threshold);
+    }
+    this.median = new FilterMedian(level, length);
+    this.window = new double[length];
+    this.scratch = new double[length];
+    this.threshold = threshold;
+    set(level);
+  }
+
+  // Input to filter
+  @Override
+  public void in(double level) {
+    filter(level);
+  }
+
+  // Input a block of levels. The levels are filtered by a private method, so the loop has no virtual call.
+  @Override
+  public void process(double[] in, int off, int len, double[] out) {
+    for (int i = off; i < off + len; ++i) {
+      out[i] = filter(in[i]);
+    }
+  }
+
+  // Input a level and return the output level
+  private double filter(double level) {
+    in = level;
+    window[index] = level;
+    if (++index == window.length) {
+      index = 0;
+    }
+    double m = median.filter(level);
+    for (int i = 0; i < window.length; ++i) {
+      scratch[i] = Math.abs(window[i] - m);
+    }
+    double mad = median(scratch, scratch.length);
+    out = Math.abs(level - m) > threshold * MAD_SCALE * mad ? m : level;
+    return out;
+  }
+
+  // Set filter level
+  @Override
+  public void set(double level) {
+    super.set(level);
+    median.set(level);
+    for (int i = 0; i < window.length; ++i) {
+      window[i] = level;
+    }
+    index = 0;
+  }
+
+  // Median of a[0..n), reorders a
+  static double median(double[] a, int n) {
+    int k = n / 2;
+    double upper = select(a, n, k);
+    if (n % 2 == 1) {
+      return upper;
+    }
+    // After selection a[0..k) holds the levels below a[k]
+    double lower = a[0];
+    for (int i = 1; i < k; ++i) {
+      lower = Math.max(lower, a[i]);
+    }
+    return (lower + upper) / 2;
+  }
+
+  // k:th smallest level of a[0..n), reorders a so that a[0..k) <= a[k] <= a[k + 1..n)
+  static double select(double[] a, int n, int k) {
+    int left = 0;
+    int right = n - 1;
+    while (left < right) {
+      int mid = (left + right) >>> 1;
+      // Median of three as pivot, placed at mid
+      if (a[mid] < a[left]) {
+        swap(a, left, mid);
+      }
+      if (a[right] < a[left]) {
+        swap(a, left, right);
+      }
+      if (a[right] < a[mid]) {
+        swap(a, mid, right);
+      }
+      double pivot = a[mid];
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (a[i] < pivot) {
+          ++i;
+        }
+        while (a[j] > pivot) {
+          --j;
+        }
+        if (i <= j) {
+          swap(a, i++, j--);
+        }
+      }
+      if (k <= j) {
+        right = j;
+      } else if (k >= i) {
+        left = i;
+      } else {
+        break;
+      }
+    }
+    return a[k];
+  }
+
+  private static void swap(double[] a, int i, int j) {
+    double t = a[i];
+    a[i] = a[j];
+    a[j] = t;
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+/**
+ * <p>
+ * FilterMedian outputs the median of the last length input levels. For an even length the output is the mean of
+ * the two middle levels.
+ * </p>
+ * <p>
+ * The window is kept in a circular buffer whose slots are divided between a max-heap with the lower half and a
+ * min-heap with the upper half of the levels. The heaps store slot indexes and each slot knows its position in its
+ * heap, so the oldest level can be replaced by the new one in place followed by a sift and at most one swap between
+ * the heaps. The cost per level is O(log length) and no objects are allocated.
+ * </p>
+ */
+public class FilterMedian extends Filter {
+  private final double[] window;  // Last length input levels
+  private final int[] low;        // Max-heap of the slots with the lower half of the levels
+  private final int[] high;       // Min-heap of the slots with the upper half of the levels
+  private final int[] heapPos;    // Position of each slot in its heap
+  private final boolean[] inLow;  // true if the slot is in low
+  private int index;              // Slot of the oldest level
+
+  public FilterMedian(int length) {
+    this(0, length);
+  }
+
+  public FilterMedian(double level, int length) {
+    if (length <= 0) {
+      throw new IllegalArgumentException("Invalid length:" + length);
+    }
+    window = new double[length];
+    low = new int[(length + 1) / 2];
+    high = new int[length / 2];
+    heapPos = new int[length];
+    inLow = new boolean[length];
+    set(level);
+  }
+
+  // Input to filter
+  @Override
+  public void in(double level) {
+    filter(level);
+  }
+
+  // Input a block of levels. The levels are filtered by a final method, so the loop has no virtual call.
+  @Override
+  public void process(double[] in, int off, int len, double[] out) {
+    for (int i = off; i < off + len; ++i) {
+      out[i] = filter(in[i]);
+    }
+  }
+
+  // Input a level and return the output level, also used by FilterHampel
+  final double filter(double level) {
+    in = level;
+    int slot = index;
+    if (++index == window.length) {
+      index = 0;
+    }
+    window[slot] = level;
+    if (inLow[slot]) {
+      sift(low, true, heapPos[slot]);
+    } else {
+      sift(high, false, heapPos[slot]);
+    }
+    if (high.length > 0 && window[low[0]] > window[high[0]]) {
+      // The changed level crossed the middle, swap the tops of the heaps
+      int l = low[0];
+      int h = high[0];
+      place(low, true, 0, h);
+      place(high, false, 0, l);
+      siftDown(low, true, 0);
+      siftDown(high, false, 0);
+    }
+    out = window.length % 2 == 1 ? window[low[0]] : (window[low[0]] + window[high[0]]) / 2;
+    return out;
+  }
+
+  // Set filter level
+  @Override
+  public void set(double level) {
+    super.set(level);
+    for (int slot = 0; slot < window.length; ++slot) {
+      window[slot] = level;
+      if (slot < low.length) {
+        place(low, true, slot, slot);
+      } else {
+        place(high, false, slot - low.length, slot);
+      }
+    }
+    index = 0;
+  }
+
+  private void place(int[] heap, boolean isLow, int pos, int slot) {
+    heap[pos] = slot;
+    heapPos[slot] = pos;
+    inLow[slot] = isLow;
+  }
+
+  // true if a should be closer to the top than b
+  private static boolean above(boolean isLow, double a, double b) {
+    return isLow ? a > b : a < b;
+  }
+
+  private void sift(int[] heap, boolean isLow, int pos) {
+    if (pos > 0 && above(isLow, window[heap[pos]], window[heap[(pos - 1) / 2]])) {
+      siftUp(heap, isLow, pos);
+    } else {
+      siftDown(heap, isLow, pos);
+    }
+  }
+
+  private void siftUp(int[] heap, boolean isLow, int pos) {
+    int slot = heap[pos];
+    while (pos > 0) {
+      int parent = (pos - 1) / 2;
+      if (!above(isLow, window[slot], window[heap[parent]])) {
+        break;
+      }
+      place(heap, isLow, pos, heap[parent]);
+      pos = parent;
+    }
+    place(heap, isLow, pos, slot);
+  }
+
+  private void siftDown(int[] heap, boolean isLow, int pos) {
+    int slot = heap[pos];
+    while (true) {
+      int child = 2 * pos + 1;
+      if (child >= heap.length) {
+        break;
+      }
+      if (child + 1 < heap.length && above(isLow, window[heap[child + 1]], window[heap[child]])) {
+        ++child;
+      }
+      if (!above(isLow, window[heap[child]], window[slot])) {
+        break;
+      }
+      place(heap, isLow, pos, heap[child]);
+      pos = child;
+    }
+    place(heap, isLow, pos, slot);
+  }
+}
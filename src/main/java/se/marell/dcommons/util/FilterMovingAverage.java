@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+/**
+ * FilterMovingAverage outputs the mean of the last length input levels. The levels are kept in a circular buffer
+ * and the output is updated with a running sum, so the cost per level does not depend on the length. The sum is
+ * recalculated from the buffer once per round to keep rounding errors from accumulating.
+ */
+public class FilterMovingAverage extends Filter {
+  private final double[] window; // Last length input levels
+  private int index;             // Position of the oldest level in window
+  private double sum;            // Sum of the levels in window
+
+  public FilterMovingAverage(int length) {
+    this(0, length);
+  }
+
+  public FilterMovingAverage(double level, int length) {
+    if (length <= 0) {
+      throw new IllegalArgumentException("Invalid length:" + length);
+    }
+    window = new double[length];
+    set(level);
+  }
+
+  // Input to filter
+  @Override
+  public void in(double level) {
+    in = level;
+    sum += level - window[index];
+    window[index] = level;
+    if (++index == window.length) {
+      index = 0;
+      sum = 0;
+      for (double w : window) {
+        sum += w;
+      }
+    }
+    out = sum / window.length;
+  }
+
+  // Input a block of levels with the window position and the sum in local variables
+  @Override
+  public void process(double[] in, int off, int len, double[] out) {
+    if (len <= 0) {
+      return;
+    }
+    final double[] window = this.window;
+    final int length = window.length;
+    int index = this.index;
+    double sum = this.sum;
+    double level = 0;
+    for (int i = off; i < off + len; ++i) {
+      level = in[i];
+      sum += level - window[index];
+      window[index] = level;
+      if (++index == length) {
+        index = 0;
+        sum = 0;
+        for (double w : window) {
+          sum += w;
+        }
+      }
+      out[i] = sum / length;
+    }
+    this.index = index;
+    this.sum = sum;
+    this.in = level;
+    this.out = out[off + len - 1];
+  }
+
+  // Set filter level
+  @Override
+  public void set(double level) {
+    super.set(level);
+    for (int i = 0; i < window.length; ++i) {
+      window[i] = level;
+    }
+    index = 0;
+    sum = level * window.length;
+  }
+}
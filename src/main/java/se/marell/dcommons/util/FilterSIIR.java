@@ -47,4 +47,23 @@ public class FilterSIIR extends Filter {
     // Calculate and store output level.
     out = ((length - 1) * out + level) / length;
   }
+
+  // Input a block of levels. Each output depends on the previous one, so the loop can not be vectorized, but
+  // keeping the state in local variables avoids a virtual call and a field store per level.
+  @Override
+  public void process(double[] in, int off, int len, double[] out) {
+    if (len <= 0) {
+      return;
+    }
+    final int length = this.length;
+    double o = this.out;
+    double level = 0;
+    for (int i = off; i < off + len; ++i) {
+      level = in[i];
+      o = ((length - 1) * o + level) / length;
+      out[i] = o;
+    }
+    this.in = level;
+    this.out = o;
+  }
 }
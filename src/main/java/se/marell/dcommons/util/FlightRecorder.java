@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import se.marell.dcommons.time.DefaultTimeSource;
+import se.marell.dcommons.time.TimeSource;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * <p>
+ * An always-on in-process flight recorder keeping the last events of each thread, to be dumped when something
+ * goes wrong. Each thread records into its own MutableElementQueue of pre-allocated Event records, so recording
+ * an event does not allocate any objects and only takes an uncontended lock. When the queue of a thread is full the
+ * oldest event is overwritten.
+ * </p>
+ * <p>
+ * An event consists of a timestamp, a name and up to two long values. The name should be a constant string since
+ * only the reference is stored. The recorded events are written as text with dump, which can also be done
+ * automatically on an uncaught exception or when the JVM shuts down, for example on SIGTERM or SIGINT.
+ * </p>
+ * <p>
+ * The events of threads that have terminated are kept until they have been dumped once, but at most for the last
+ * maxTerminatedThreads terminated threads, so that thread pools replacing their threads do not make the recorder
+ * grow without bound.
+ * </p>
+ * Usage example:
+ * <pre>
+ * FlightRecorder recorder = new FlightRecorder(1000);
+ * recorder.dumpOnUncaughtException(new File("flight.txt"));
+ * ...
+ * recorder.record("order.received", orderId);
+ * recorder.record("order.filled", orderId, quantity);
+ * </pre>
+ */
+public class FlightRecorder {
+  /**
+   * A recorded event.
+   */
+  public static final class Event {
+    private long timestampNanos;
+    private String name;
+    private long value1;
+    private long value2;
+
+    /**
+     * @return TimeSource.nanoTime when the event was recorded
+     */
+    public long getTimestampNanos() {
+      return timestampNanos;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getValue1() {
+      return value1;
+    }
+
+    public long getValue2() {
+      return value2;
+    }
+  }
+
+  /**
+   * The recorded events of one thread.
+   */
+  private static final class ThreadRecorder {
+    private final WeakReference<Thread> thread;
+    private final String threadName;
+    private final MutableElementQueue<Event> events;
+
+    private ThreadRecorder(Thread thread, int size) {
+      this.thread = new WeakReference<Thread>(thread);
+      this.threadName = thread.getName();
+      this.events = new MutableElementQueue<Event>(new Event[size], Event::new);
+    }
+
+    private boolean isTerminated() {
+      Thread t = thread.get();
+      return t == null || !t.isAlive();
+    }
+  }
+
+  private static final int DEFAULT_MAX_TERMINATED_THREADS = 64;
+
+  private final int eventsPerThread;
+  private final TimeSource timeSource;
+  private final long startMillis;
+  private final long startNanos;
+  private final List<ThreadRecorder> recorders = new ArrayList<ThreadRecorder>();
+  private int maxTerminatedThreads = DEFAULT_MAX_TERMINATED_THREADS;
+  private final ThreadLocal<ThreadRecorder> threadRecorder = ThreadLocal.withInitial(this::createThreadRecorder);
+
+  /**
+   * Create a new FlightRecorder using the system time.
+   *
+   * @param eventsPerThread Number of events kept per thread. Must be larger than 0.
+   */
+  public FlightRecorder(int eventsPerThread) {
+    this(eventsPerThread, new DefaultTimeSource());
+  }
+
+  /**
+   * Create a new FlightRecorder.
+   *
+   * @param eventsPerThread Number of events kept per thread. Must be larger than 0.
+   * @param timeSource      Source of the event timestamps
+   */
+  public FlightRecorder(int eventsPerThread, TimeSource timeSource) {
+    if (eventsPerThread <= 0) {
+      throw new IllegalArgumentException("Invalid eventsPerThread:" + eventsPerThread);
+    }
+    this.eventsPerThread = eventsPerThread;
+    this.timeSource = timeSource;
+    this.startMillis = timeSource.currentTimeMillis();
+    this.startNanos = timeSource.nanoTime();
+  }
+
+  /**
+   * Set the max number of terminated threads whose events are kept until they are dumped. The default is 64.
+   *
+   * @param maxTerminatedThreads Max number of terminated threads, at least 0
+   */
+  public synchronized void setMaxTerminatedThreads(int maxTerminatedThreads) {
+    if (maxTerminatedThreads < 0) {
+      throw new IllegalArgumentException("Invalid maxTerminatedThreads:" + maxTerminatedThreads);
+    }
+    this.maxTerminatedThreads = maxTerminatedThreads;
+  }
+
+  /**
+   * @return Max number of terminated threads whose events are kept until they are dumped
+   */
+  public synchronized int getMaxTerminatedThreads() {
+    return maxTerminatedThreads;
+  }
+
+  /**
+   * @return Number of threads whose events are kept, running and terminated
+   */
+  public synchronized int getThreadCount() {
+    return recorders.size();
+  }
+
+  /**
+   * Record an event for the calling thread.
+   *
+   * @param name Name of the event, preferably a constant
+   */
+  public void record(String name) {
+    record(name, 0, 0);
+  }
+
+  /**
+   * Record an event for the calling thread.
+   *
+   * @param name  Name of the event, preferably a constant
+   * @param value Value associated with the event
+   */
+  public void record(String name, long value) {
+    record(name, value, 0);
+  }
+
+  /**
+   * Record an event for the calling thread.
+   *
+   * @param name   Name of the event, preferably a constant
+   * @param value1 First value associated with the event
+   * @param value2 Second value associated with the event
+   */
+  public void record(String name, long value1, long value2) {
+    ThreadRecorder r = threadRecorder.get();
+    long now = timeSource.nanoTime();
+    synchronized (r) {
+      Event e = r.events.putLast();
+      if (e == null) {
+        r.events.getFirst();
+        e = r.events.putLast();
+      }
+      e.timestampNanos = now;
+      e.name = name;
+      e.value1 = value1;
+      e.value2 = value2;
+    }
+  }
+
+  /**
+   * Remove all recorded events.
+   */
+  public void clear() {
+    for (ThreadRecorder r : getRecorders()) {
+      synchronized (r) {
+        r.events.drainTo(e -> e.name = null, Integer.MAX_VALUE);
+      }
+    }
+  }
+
+  /**
+   * Write the recorded events as text, one line per event and grouped per thread, oldest first. The events of
+   * terminated threads are removed after they have been written.
+   *
+   * @param out Destination
+   * @throws IOException if the events can not be written
+   */
+  public void dump(Writer out) throws IOException {
+    PrintWriter pw = new PrintWriter(out);
+    List<ThreadRecorder> dumped = getRecorders();
+    for (ThreadRecorder r : dumped) {
+      pw.println("Thread " + r.threadName);
+      synchronized (r) {
+        r.events.forEach(e -> {
+          long millis = startMillis + Math.floorDiv(e.timestampNanos - startNanos, 1000000L);
+          pw.printf("%tF %<tT.%<tL %s %d %d%n", millis, e.name, e.value1, e.value2);
+        });
+      }
+    }
+    pw.flush();
+    if (pw.checkError()) {
+      throw new IOException("Failed to write flight recording");
+    }
+    removeTerminated(dumped);
+  }
+
+  /**
+   * Write the recorded events as text to a file.
+   *
+   * @param file Destination, replaced if it exists
+   * @throws IOException if the file can not be written
+   */
+  public void dump(File file) throws IOException {
+    try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+      dump(out);
+    }
+  }
+
+  /**
+   * Dump the recorded events to a file when a thread terminates due to an uncaught exception. The exception is
+   * recorded as a last event of the failing thread and the previous default uncaught exception handler, if any, is
+   * called after the dump.
+   *
+   * @param file Destination, replaced by each dump
+   */
+  public void dumpOnUncaughtException(final File file) {
+    final Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+    Thread.setDefaultUncaughtExceptionHandler((t, e) -> {
+      record("uncaught " + e);
+      dumpQuietly(file);
+      if (previous != null) {
+        previous.uncaughtException(t, e);
+      } else {
+        System.err.print("Exception in thread \"" + t.getName() + "\" ");
+        e.printStackTrace();
+      }
+    });
+  }
+
+  /**
+   * Dump the recorded events to a file when the JVM shuts down.
+   *
+   * @param file Destination, replaced if it exists
+   */
+  public void dumpOnShutdown(final File file) {
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> dumpQuietly(file), "FlightRecorder shutdown dump"));
+  }
+
+  private void dumpQuietly(File file) {
+    try {
+      dump(file);
+    } catch (IOException e) {
+      System.err.println("FlightRecorder: Failed to dump to " + file + ": " + e.getMessage());
+    }
+  }
+
+  private synchronized ThreadRecorder createThreadRecorder() {
+    // Make room by dropping the oldest terminated threads beyond the limit
+    int terminated = 0;
+    for (ThreadRecorder r : recorders) {
+      if (r.isTerminated()) {
+        ++terminated;
+      }
+    }
+    for (Iterator<ThreadRecorder> it = recorders.iterator(); it.hasNext() && terminated > maxTerminatedThreads; ) {
+      if (it.next().isTerminated()) {
+        it.remove();
+        --terminated;
+      }
+    }
+    ThreadRecorder r = new ThreadRecorder(Thread.currentThread(), eventsPerThread);
+    recorders.add(r);
+    return r;
+  }
+
+  private synchronized void removeTerminated(List<ThreadRecorder> dumped) {
+    for (ThreadRecorder r : dumped) {
+      if (r.isTerminated()) {
+        recorders.remove(r);
+      }
+    }
+  }
+
+  private synchronized List<ThreadRecorder> getRecorders() {
+    return new ArrayList<ThreadRecorder>(recorders);
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A PriorityBuffer where the priority of each element is a long key, stored in a long[] next to the elements.
+ * Keys are compared directly without a Comparator and without boxing, and an element may be null if only the keys
+ * are of interest. The element with the lowest key is at the root of the heap.
+ * </p>
+ * <p>
+ * In evict lowest mode an element inserted in a full buffer replaces the element with the lowest key if its key is
+ * higher, which keeps the elements with the K highest keys of a stream.
+ * </p>
+ */
+public class LongPriorityBuffer<E> {
+  private final long[] keys;
+  private final Object[] values;
+  private final int arity;
+  private int nofElements = 0;
+  private boolean evictLowest;
+
+  /**
+   * Create a new LongPriorityBuffer with 4 children per heap node.
+   *
+   * @param maxSize Max number of items in buffer. Must be larger than 0.
+   */
+  public LongPriorityBuffer(int maxSize) {
+    this(maxSize, 4);
+  }
+
+  /**
+   * Create a new LongPriorityBuffer.
+   *
+   * @param maxSize Max number of items in buffer. Must be larger than 0.
+   * @param arity   Number of children per heap node. Must be larger than 1.
+   */
+  public LongPriorityBuffer(int maxSize, int arity) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Invalid maxSize:" + maxSize);
+    }
+    if (arity < 2) {
+      throw new IllegalArgumentException("Invalid arity:" + arity);
+    }
+    this.keys = new long[maxSize];
+    this.values = new Object[maxSize];
+    this.arity = arity;
+  }
+
+  /**
+   * Set evict lowest mode. In this mode offer on a full buffer replaces the element with the lowest key if the new
+   * key is higher.
+   *
+   * @param evictLowest true to evict the lowest element when the buffer is full
+   */
+  public synchronized void setEvictLowest(boolean evictLowest) {
+    this.evictLowest = evictLowest;
+  }
+
+  /**
+   * @return true if the buffer is in evict lowest mode
+   */
+  public synchronized boolean isEvictLowest() {
+    return evictLowest;
+  }
+
+  /**
+   * @return true if buffer is empty
+   */
+  public boolean isEmpty() {
+    return nofElements == 0;
+  }
+
+  /**
+   * @return true if buffer is full
+   */
+  public boolean isFull() {
+    return nofElements >= keys.length;
+  }
+
+  /**
+   * @return number of elements in buffer
+   */
+  public int size() {
+    return nofElements;
+  }
+
+  /**
+   * @return Max number of elements in buffer
+   */
+  public int getMaxSize() {
+    return keys.length;
+  }
+
+  /**
+   * Insert an element if there is room for it. In evict lowest mode a full buffer makes room by evicting the
+   * element with the lowest key, provided that key is higher.
+   *
+   * @param key   Priority
+   * @param value Element, may be null
+   * @return true if the element was inserted
+   */
+  public synchronized boolean offer(long key, E value) {
+    if (nofElements < keys.length) {
+      siftUp(nofElements++, key, value);
+      return true;
+    }
+    if (!evictLowest || key <= keys[0]) {
+      return false;
+    }
+    siftDown(0, key, value);
+    return true;
+  }
+
+  /**
+   * @return The lowest key
+   * @throws NoSuchElementException if the buffer is empty
+   */
+  public synchronized long peekLowestKey() {
+    if (nofElements == 0) {
+      throw new NoSuchElementException();
+    }
+    return keys[0];
+  }
+
+  /**
+   * @return The element with the lowest key
+   * @throws NoSuchElementException if the buffer is empty
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized E peekLowest() {
+    if (nofElements == 0) {
+      throw new NoSuchElementException();
+    }
+    return (E) values[0];
+  }
+
+  /**
+   * Remove the element with the lowest key. Use peekLowestKey first to get the key.
+   *
+   * @return The removed element
+   * @throws NoSuchElementException if the buffer is empty
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized E pollLowest() {
+    if (nofElements == 0) {
+      throw new NoSuchElementException();
+    }
+    E lowest = (E) values[0];
+    --nofElements;
+    long lastKey = keys[nofElements];
+    E lastValue = (E) values[nofElements];
+    values[nofElements] = null;
+    if (nofElements > 0) {
+      siftDown(0, lastKey, lastValue);
+    }
+    return lowest;
+  }
+
+  /**
+   * Remove all elements and copy them to dstKeys and dstValues sorted from the highest to the lowest key.
+   *
+   * @param dstKeys   Destination array for the keys with room for size() keys from off
+   * @param dstValues Destination array for the elements with room for size() elements from off, or null
+   * @param off       Position in the destination arrays of the highest key
+   * @return Number of removed elements
+   */
+  public synchronized int drainTo(long[] dstKeys, E[] dstValues, int off) {
+    int n = nofElements;
+    for (int i = n - 1; i >= 0; --i) {
+      dstKeys[off + i] = keys[0];
+      E value = pollLowest();
+      if (dstValues != null) {
+        dstValues[off + i] = value;
+      }
+    }
+    return n;
+  }
+
+  /**
+   * Remove all elements.
+   */
+  public synchronized void clear() {
+    for (int i = 0; i < nofElements; ++i) {
+      values[i] = null;
+    }
+    nofElements = 0;
+  }
+
+  private void siftUp(int index, long key, E value) {
+    while (index > 0) {
+      int parent = (index - 1) / arity;
+      if (key >= keys[parent]) {
+        break;
+      }
+      keys[index] = keys[parent];
+      values[index] = values[parent];
+      index = parent;
+    }
+    keys[index] = key;
+    values[index] = value;
+  }
+
+  private void siftDown(int index, long key, E value) {
+    while (true) {
+      int child = index * arity + 1;
+      if (child >= nofElements) {
+        break;
+      }
+      // Find the child with the lowest key
+      int end = Math.min(child + arity, nofElements);
+      int min = child;
+      for (int c = child + 1; c < end; ++c) {
+        if (keys[c] < keys[min]) {
+          min = c;
+        }
+      }
+      if (keys[min] >= key) {
+        break;
+      }
+      keys[index] = keys[min];
+      values[index] = values[min];
+      index = min;
+    }
+    keys[index] = key;
+    values[index] = value;
+  }
+}
@@ -0,0 +1,425 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import se.marell.dcommons.time.DefaultTimeSource;
+import se.marell.dcommons.time.PassiveTimer;
+import se.marell.dcommons.time.TimeSource;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>
+ * A durable QueueBuffer of byte records, backed by a memory-mapped file. Elements are inserted at the end of the
+ * queue (putLast operation) and retrieved from the front of the queue (getFirst operation), and the content survives
+ * a restart of the process: opening an existing file recovers the head and tail positions from the file header.
+ * </p>
+ * <p>
+ * The file consists of a header followed by maxQueueSize slots, each holding the length of a record and up to
+ * recordSize bytes of data. Writes go directly to the mapped memory, so a record is safe from a crash of the process
+ * as soon as putLast returns. Whether it is also safe from a crash of the operating system depends on when the mapped
+ * memory is forced to disk, which is decided by the FlushPolicy. The position of the first element is written on
+ * every getFirst and forced to disk by the next flush, so after a crash of the operating system records consumed
+ * since the last flush are delivered again.
+ * </p>
+ * <p>
+ * Usage example:
+ * </p>
+ * <pre>
+ * MappedQueueBuffer q = new MappedQueueBuffer(new File("samples.q"), 100000, 64,
+ *     MappedQueueBuffer.FlushPolicy.periodic(1000));
+ * q.putLast(bytes);
+ * ...
+ * byte[] record = q.getFirst();
+ * ...
+ * q.close();
+ * </pre>
+ */
+public class MappedQueueBuffer implements Closeable {
+  /**
+   * Decides when written records are forced to disk.
+   */
+  public static abstract class FlushPolicy {
+    /**
+     * Force every record to disk before putLast returns. Most durable and slowest.
+     *
+     * @return A new FlushPolicy
+     */
+    public static FlushPolicy everyWrite() {
+      return everyNWrites(1);
+    }
+
+    /**
+     * Force records to disk for every n written records.
+     *
+     * @param n Number of records between flushes
+     * @return A new FlushPolicy
+     */
+    public static FlushPolicy everyNWrites(final int n) {
+      if (n <= 0) {
+        throw new IllegalArgumentException("Invalid n:" + n);
+      }
+      return new FlushPolicy() {
+        private int writes;
+
+        @Override
+        boolean shouldFlush() {
+          if (++writes >= n) {
+            writes = 0;
+            return true;
+          }
+          return false;
+        }
+      };
+    }
+
+    /**
+     * Force records to disk on the first write after the specified period has elapsed since the last flush.
+     *
+     * @param millis Min number of milliseconds between flushes
+     * @return A new FlushPolicy
+     */
+    public static FlushPolicy periodic(long millis) {
+      return periodic(millis, new DefaultTimeSource());
+    }
+
+    /**
+     * Force records to disk on the first write after the specified period has elapsed since the last flush.
+     *
+     * @param millis Min number of milliseconds between flushes
+     * @param source Time source
+     * @return A new FlushPolicy
+     */
+    public static FlushPolicy periodic(long millis, TimeSource source) {
+      final PassiveTimer timer = new PassiveTimer(millis, source);
+      return new FlushPolicy() {
+        @Override
+        boolean shouldFlush() {
+          if (timer.hasExpired()) {
+            timer.restart();
+            return true;
+          }
+          return false;
+        }
+      };
+    }
+
+    /**
+     * Never force records to disk except on flush and close, leaving it to the operating system.
+     *
+     * @return A new FlushPolicy
+     */
+    public static FlushPolicy never() {
+      return new FlushPolicy() {
+        @Override
+        boolean shouldFlush() {
+          return false;
+        }
+      };
+    }
+
+    /**
+     * Called after each write.
+     *
+     * @return true if the mapped memory shall be forced to disk
+     */
+    abstract boolean shouldFlush();
+  }
+
+  private static final int MAGIC = 0x44514231; // "DQB1"
+  private static final int MAGIC_POS = 0;
+  private static final int RECORD_SIZE_POS = 4;
+  private static final int MAX_QUEUE_SIZE_POS = 8;
+  private static final int HEAD_POS = 16;
+  private static final int TAIL_POS = 24;
+  private static final int HEADER_SIZE = 64;
+
+  private final RandomAccessFile file;
+  private final MappedByteBuffer buffer;
+  // View of buffer used for bulk copying of record data, since the absolute bulk methods require Java 13
+  private final ByteBuffer data;
+  private final int maxQueueSize;
+  private final int recordSize;
+  private final int slotSize;
+  private final FlushPolicy flushPolicy;
+  private long head;
+  private long tail;
+  private boolean dirty;
+  private boolean closed;
+  // Number of times the mapped memory has been forced to disk, for testing
+  private int flushCount;
+
+  /**
+   * Open a queue file, creating it if it does not exist.
+   *
+   * @param f            Queue file
+   * @param maxQueueSize Max number of records in queue. Must match the file if it exists.
+   * @param recordSize   Max number of bytes in a record. Must match the file if it exists.
+   * @param flushPolicy  Decides when written records are forced to disk
+   * @throws IOException if the file cannot be opened, has a different layout or is corrupt
+   */
+  public MappedQueueBuffer(File f, int maxQueueSize, int recordSize, FlushPolicy flushPolicy) throws IOException {
+    long length = HEADER_SIZE + (long) maxQueueSize * (4 + recordSize);
+    if (maxQueueSize <= 0 || recordSize <= 0 || length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid maxQueueSize:" + maxQueueSize + ",recordSize:" + recordSize);
+    }
+    this.maxQueueSize = maxQueueSize;
+    this.recordSize = recordSize;
+    this.slotSize = 4 + recordSize;
+    this.flushPolicy = flushPolicy;
+    boolean exists = f.exists() && f.length() > 0;
+    file = new RandomAccessFile(f, "rw");
+    try {
+      if (exists && file.length() != length) {
+        throw new IOException("Queue file " + f + " has length " + file.length() + ", expected " + length);
+      }
+      buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+      data = buffer.duplicate();
+      if (exists) {
+        recover(f);
+      } else {
+        buffer.putInt(RECORD_SIZE_POS, recordSize);
+        buffer.putInt(MAX_QUEUE_SIZE_POS, maxQueueSize);
+        buffer.putLong(HEAD_POS, 0);
+        buffer.putLong(TAIL_POS, 0);
+        buffer.putInt(MAGIC_POS, MAGIC);
+        buffer.force();
+      }
+    } catch (IOException e) {
+      file.close();
+      throw e;
+    } catch (RuntimeException e) {
+      file.close();
+      throw e;
+    }
+  }
+
+  private void recover(File f) throws IOException {
+    if (buffer.getInt(MAGIC_POS) != MAGIC) {
+      throw new IOException("Not a queue file: " + f);
+    }
+    if (buffer.getInt(RECORD_SIZE_POS) != recordSize || buffer.getInt(MAX_QUEUE_SIZE_POS) != maxQueueSize) {
+      throw new IOException("Queue file " + f + " has recordSize " + buffer.getInt(RECORD_SIZE_POS) +
+          " and maxQueueSize " + buffer.getInt(MAX_QUEUE_SIZE_POS));
+    }
+    head = buffer.getLong(HEAD_POS);
+    tail = buffer.getLong(TAIL_POS);
+    if (head < 0 || tail < head || tail - head > maxQueueSize) {
+      throw new IOException("Corrupt queue file " + f + ": head " + head + ", tail " + tail);
+    }
+    for (long sequence = head; sequence < tail; ++sequence) {
+      int len = buffer.getInt(slotPosition(sequence));
+      if (len < 0 || len > recordSize) {
+        throw new IOException("Corrupt queue file " + f + ": record " + sequence + " has length " + len);
+      }
+    }
+  }
+
+  /**
+   * @return true if queue is empty
+   */
+  public synchronized boolean isEmpty() {
+    return tail == head;
+  }
+
+  /**
+   * @return true if queue is full
+   */
+  public synchronized boolean isFull() {
+    return tail - head >= maxQueueSize;
+  }
+
+  /**
+   * @return number of records in queue
+   */
+  public synchronized int size() {
+    return (int) (tail - head);
+  }
+
+  /**
+   * @return number of free records in queue
+   */
+  public synchronized int getFree() {
+    return maxQueueSize - size();
+  }
+
+  /**
+   * @return Max number of records in queue
+   */
+  public int getMaxSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * @return Max number of bytes in a record
+   */
+  public int getRecordSize() {
+    return recordSize;
+  }
+
+  /**
+   * Put a record at the end of this queue.
+   *
+   * @param src Record data, at most recordSize bytes
+   * @return true if the record was inserted, false if the queue is full
+   */
+  public boolean putLast(byte[] src) {
+    return putLast(src, 0, src.length);
+  }
+
+  /**
+   * Put a record at the end of this queue.
+   *
+   * @param src Source array
+   * @param off Position in src of the first byte of the record
+   * @param len Number of bytes in the record, at most recordSize
+   * @return true if the record was inserted, false if the queue is full
+   * @throws IllegalStateException if the queue is closed
+   */
+  public synchronized boolean putLast(byte[] src, int off, int len) {
+    checkOpen();
+    if (len < 0 || len > recordSize) {
+      throw new IllegalArgumentException("Invalid record length:" + len);
+    }
+    if (isFull()) {
+      return false;
+    }
+    int pos = slotPosition(tail);
+    buffer.putInt(pos, len);
+    data.position(pos + 4);
+    data.put(src, off, len);
+    // Publish the record after its data has been written
+    ++tail;
+    buffer.putLong(TAIL_POS, tail);
+    dirty = true;
+    if (flushPolicy.shouldFlush()) {
+      flush();
+    }
+    return true;
+  }
+
+  /**
+   * Look at the record in the first position in this queue without removing it from the queue.
+   *
+   * @param dst Destination array, must have room for the record
+   * @param off Position in dst of the first byte of the record
+   * @return Number of bytes in the record or -1 if the queue is empty
+   * @throws IllegalStateException if the queue is closed
+   */
+  public synchronized int peek(byte[] dst, int off) {
+    checkOpen();
+    if (isEmpty()) {
+      return -1;
+    }
+    int pos = slotPosition(head);
+    int len = buffer.getInt(pos);
+    data.position(pos + 4);
+    data.get(dst, off, len);
+    return len;
+  }
+
+  /**
+   * Remove the record in the first position in this queue and copy it to dst.
+   *
+   * @param dst Destination array, must have room for the record
+   * @param off Position in dst of the first byte of the record
+   * @return Number of bytes in the record or -1 if the queue is empty
+   * @throws IllegalStateException if the queue is closed
+   */
+  public synchronized int getFirst(byte[] dst, int off) {
+    int len = peek(dst, off);
+    if (len >= 0) {
+      ++head;
+      buffer.putLong(HEAD_POS, head);
+      dirty = true;
+    }
+    return len;
+  }
+
+  /**
+   * Remove the record in the first position in this queue and return it as the value of the function.
+   *
+   * @return Record data or null if the queue is empty
+   * @throws IllegalStateException if the queue is closed
+   */
+  public synchronized byte[] getFirst() {
+    checkOpen();
+    if (isEmpty()) {
+      return null;
+    }
+    byte[] record = new byte[buffer.getInt(slotPosition(head))];
+    getFirst(record, 0);
+    return record;
+  }
+
+  /**
+   * Force all records and the head and tail positions to disk.
+   *
+   * @throws IllegalStateException if the queue is closed
+   */
+  public synchronized void flush() {
+    checkOpen();
+    if (dirty) {
+      buffer.force();
+      dirty = false;
+      ++flushCount;
+    }
+  }
+
+  /**
+   * Flush and close the file. The memory mapping is released when the queue is garbage collected.
+   * Closing a closed queue has no effect.
+   *
+   * @throws IOException if the file cannot be closed
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    flush();
+    closed = true;
+    file.close();
+  }
+
+  synchronized int getFlushCount() {
+    return flushCount;
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("Queue is closed");
+    }
+  }
+
+  private int slotPosition(long sequence) {
+    return HEADER_SIZE + (int) (sequence % maxQueueSize) * slotSize;
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A bounded lock-free queue for any number of producer and consumer threads.
+ * Elements are inserted at the end of the queue (offer operation) and retrieved from the
+ * front of the queue (poll operation). Neither operation ever blocks.
+ * </p>
+ * <p>
+ * Each slot in the ring carries its own sequence number telling whether it is ready to be written or read in the
+ * current lap. Producers and consumers claim a position with a compare-and-set on a padded head or tail counter and
+ * then only touch their own slot, so threads on the same side only contend on a single counter and threads on
+ * opposite sides never contend at all. Like QueueBuffer no objects are allocated when elements are inserted or
+ * retrieved.
+ * </p>
+ * <p>
+ * Null values are not allowed since null is used by poll to report an empty queue.
+ * The capacity is rounded up to the next power of two.
+ * </p>
+ */
+public class MpmcQueueBuffer<E> {
+  private final int mask;
+  private final Object[] queue;
+  private final AtomicLongArray sequences;
+  // Position of the next element to retrieve
+  private final PaddedAtomicLong head = new PaddedAtomicLong();
+  // Position of the next element to insert
+  private final PaddedAtomicLong tail = new PaddedAtomicLong();
+
+  /**
+   * Create a new MpmcQueueBuffer with at least the specified number of elements.
+   *
+   * @param maxQueueSize Min number of items in queue, rounded up to the next power of two.
+   *                     Must be larger than 1 and at most 2^30.
+   */
+  public MpmcQueueBuffer(int maxQueueSize) {
+    if (maxQueueSize <= 1 || maxQueueSize > 1 << 30) {
+      throw new IllegalArgumentException("Invalid maxQueueSize:" + maxQueueSize);
+    }
+    int capacity = Integer.highestOneBit(maxQueueSize - 1) << 1;
+    this.queue = new Object[capacity];
+    this.mask = capacity - 1;
+    this.sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; ++i) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * @return true if queue is empty
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * @return true if queue is full
+   */
+  public boolean isFull() {
+    return size() >= queue.length;
+  }
+
+  /**
+   * The returned size is a snapshot that may be out of date as soon as it is returned when other threads
+   * are operating on the queue.
+   *
+   * @return number of elements in queue
+   */
+  public int size() {
+    // Read head before tail so that the difference never becomes negative
+    long h = head.get();
+    long t = tail.get();
+    return (int) Math.min(t - h, queue.length);
+  }
+
+  /**
+   * @return number of free elements in queue
+   */
+  public int getFree() {
+    return queue.length - size();
+  }
+
+  /**
+   * @return Max number of elements in MpmcQueueBuffer
+   */
+  public int getMaxSize() {
+    return queue.length;
+  }
+
+  /**
+   * Put an item at the end of this queue if there is room for it.
+   *
+   * @param obj Object, not null
+   * @return true if the object was inserted, false if the queue is full
+   */
+  public boolean offer(E obj) {
+    if (obj == null) {
+      throw new NullPointerException();
+    }
+    while (true) {
+      long t = tail.get();
+      int index = (int) t & mask;
+      long diff = sequences.get(index) - t;
+      if (diff == 0) {
+        if (tail.compareAndSet(t, t + 1)) {
+          queue[index] = obj;
+          // Make the slot readable in this lap
+          sequences.lazySet(index, t + 1);
+          return true;
+        }
+      } else if (diff < 0) {
+        // The slot has not been read since the previous lap
+        return false;
+      }
+      // Another producer claimed the position, retry with the new tail
+    }
+  }
+
+  /**
+   * Remove the object in the first position in this queue and return that object as the value of the function.
+   *
+   * @return Object at first position in queue or null if queue is empty
+   */
+  @SuppressWarnings("unchecked")
+  public E poll() {
+    while (true) {
+      long h = head.get();
+      int index = (int) h & mask;
+      long diff = sequences.get(index) - (h + 1);
+      if (diff == 0) {
+        if (head.compareAndSet(h, h + 1)) {
+          Object obj = queue[index];
+          queue[index] = null;
+          // Make the slot writable in the next lap
+          sequences.lazySet(index, h + queue.length);
+          return (E) obj;
+        }
+      } else if (diff < 0) {
+        // The slot has not been written in this lap
+        return null;
+      }
+      // Another consumer claimed the position, retry with the new head
+    }
+  }
+}
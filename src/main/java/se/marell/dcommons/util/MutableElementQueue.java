@@ -23,14 +23,22 @@
  */
 package se.marell.dcommons.util;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 /**
  * A MutableElementQueue is queue with pre-allocated elements. Elements must be mutable in
  * order for this queue to be useful because the objects in it cannot be replaced after initialization.
  * This technique supports queue operation with no heap allocation of objects.
- * This implementation is not thread safe.
+ * The ring index is wrapped with arithmetic instead of a compare and branch, for any queue size. initArray is used
+ * as backing array until the queue grows.
+ * A queue can be made growable with setGrowLimit, in which case a full queue doubles its capacity, keeping the
+ * order of the elements and creating the new elements with the initializer, until the limit is reached.
+ * Occupancy and throughput counters are collected when QueueMetrics are attached with setMetrics.
+ * This implementation is not thread safe. Use ConcurrentMutableElementQueue if elements are inserted by
+ * several threads.
  */
 public class MutableElementQueue<E> implements Iterable<E> {
   /**
@@ -46,6 +54,9 @@ public class MutableElementQueue<E> implements Iterable<E> {
   private int lastElement = 0;
   private int nofElements = 0;
   private E[] queue;
+  private int growLimit;
+  private final Initializer<E> initializer;
+  private QueueMetrics metrics;
 
   /**
    *
@@ -60,9 +71,44 @@ public class MutableElementQueue<E> implements Iterable<E> {
    */
   public MutableElementQueue(E[] initArray, Initializer<E> initializer) {
     this.queue = initArray;
+    this.initializer = initializer;
     for (int i = 0; i < initArray.length; ++i) {
       initArray[i] = initializer.create();
     }
+    this.growLimit = initArray.length;
+  }
+
+  /**
+   * Make the queue growable. When an element is added to a full queue, the capacity is doubled, but never beyond
+   * growLimit.
+   *
+   * @param growLimit Max capacity the queue may grow to. Not growable if not larger than the current capacity.
+   */
+  public void setGrowLimit(int growLimit) {
+    this.growLimit = growLimit;
+  }
+
+  /**
+   * @return Max capacity the queue may grow to
+   */
+  public int getGrowLimit() {
+    return Math.max(growLimit, queue.length);
+  }
+
+  /**
+   * Attach metrics that are updated by all operations on this queue.
+   *
+   * @param metrics Metrics or null to disable metrics
+   */
+  public void setMetrics(QueueMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * @return Attached metrics or null
+   */
+  public QueueMetrics getMetrics() {
+    return metrics;
   }
 
   /**
@@ -94,7 +140,7 @@ public class MutableElementQueue<E> implements Iterable<E> {
   }
 
   /**
-   * @return Max number of elements
+   * @return Max number of elements with the current capacity
    */
   public int getMaxSize() {
     return queue.length;
@@ -123,11 +169,17 @@ public class MutableElementQueue<E> implements Iterable<E> {
    */
   public E getFirst() {
     if (isEmpty()) {
+      if (metrics != null) {
+        metrics.rejectedEmpty();
+      }
       return null;
     }
     E obj = queue[firstElement];
     firstElement = incrementIndex(firstElement);
     nofElements--;
+    if (metrics != null) {
+      metrics.dequeued(1, nofElements);
+    }
     return obj;
   }
 
@@ -138,15 +190,108 @@ public class MutableElementQueue<E> implements Iterable<E> {
    * @return Added object to be initialized with data or null is queue is full
    */
   public E putLast() {
-    if (isFull()) {
+    if (isFull() && !grow(nofElements + 1)) {
+      if (metrics != null) {
+        metrics.rejectedFull();
+      }
       return null;
     }
     E obj = queue[lastElement];
     lastElement = incrementIndex(lastElement);
     nofElements++;
+    if (metrics != null) {
+      metrics.enqueued(1, nofElements);
+    }
     return obj;
   }
 
+  /**
+   * Remove up to max objects from the front of this queue and pass them in order to consumer.
+   * Each object is passed before its slot can be reused, so the consumer may read it but must not keep it.
+   *
+   * @param consumer Receiver of the removed objects
+   * @param max      Max number of objects to remove
+   * @return Number of removed objects
+   */
+  public int drainTo(Consumer<? super E> consumer, int max) {
+    int n = Math.min(max, nofElements);
+    int index = firstElement;
+    int count = 0;
+    try {
+      while (count < n) {
+        E obj = queue[index];
+        index = incrementIndex(index);
+        ++count;
+        consumer.accept(obj);
+      }
+    } finally {
+      firstElement = index;
+      nofElements -= count;
+      if (metrics != null) {
+        metrics.dequeued(count, max, nofElements);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Remove up to len objects from the front of this queue and copy the references to them in order to dst.
+   * The objects stay in the queue as pre-allocated elements and will be overwritten by later calls to putLast.
+   *
+   * @param dst Destination array
+   * @param off Position in dst of the first removed object
+   * @param len Max number of objects to remove
+   * @return Number of removed objects
+   */
+  public int drainTo(E[] dst, int off, int len) {
+    int n = Math.min(len, nofElements);
+    if (metrics != null) {
+      metrics.dequeued(n, len, nofElements - n);
+    }
+    if (n <= 0) {
+      return 0;
+    }
+    int first = Math.min(n, queue.length - firstElement);
+    System.arraycopy(queue, firstElement, dst, off, first);
+    System.arraycopy(queue, 0, dst, off + first, n - first);
+    firstElement = wrapIndex(firstElement + n);
+    nofElements -= n;
+    return n;
+  }
+
+  /**
+   * Put up to max items at the end of this queue, as many as there is room for. Since the elements are
+   * pre-allocated each added object is passed to writer in order to be initialized with data. If writer throws an
+   * exception the objects it has returned from are kept in the queue and the object it failed on is not added.
+   *
+   * @param writer Initializes the added objects
+   * @param max    Max number of objects to add
+   * @return Number of added objects
+   */
+  public int putAll(Consumer<? super E> writer, int max) {
+    if (max > queue.length - nofElements) {
+      grow(nofElements + max);
+    }
+    int n = Math.min(max, queue.length - nofElements);
+    int index = lastElement;
+    int count = 0;
+    try {
+      while (count < n) {
+        writer.accept(queue[index]);
+        // Only an element that was completely written is added
+        index = incrementIndex(index);
+        ++count;
+      }
+    } finally {
+      lastElement = index;
+      nofElements += count;
+      if (metrics != null) {
+        metrics.enqueued(count, max, nofElements);
+      }
+    }
+    return count;
+  }
+
   /**
    * Step the index one step forward in queue. Wrap it to 0 if end of array is reached.
    *
@@ -154,10 +299,96 @@ public class MutableElementQueue<E> implements Iterable<E> {
    * @return int index' new position
    */
   private int incrementIndex(int index) {
-    if (index >= queue.length - 1) {
-      return 0;
+    // next - queue.length is negative, all ones after the shift, until the end of the array is reached
+    int next = index + 1;
+    return next & ((next - queue.length) >> 31);
+  }
+
+  /**
+   * Grow the capacity to at least minCapacity by doubling it, but not beyond the grow limit.
+   * All existing elements, including the free ones, are moved to the start of the new array in queue order
+   * and the rest of the new array is filled with newly created elements.
+   *
+   * @param minCapacity Wanted capacity
+   * @return true if the capacity is at least minCapacity
+   */
+  private boolean grow(int minCapacity) {
+    if (queue.length >= growLimit) {
+      return queue.length >= minCapacity;
+    }
+    long newCapacity = queue.length;
+    while (newCapacity < minCapacity) {
+      newCapacity *= 2;
+    }
+    newCapacity = Math.min(newCapacity, growLimit);
+    int oldCapacity = queue.length;
+    E[] newQueue = Arrays.copyOf(queue, (int) newCapacity);
+    int first = oldCapacity - firstElement;
+    System.arraycopy(queue, firstElement, newQueue, 0, first);
+    System.arraycopy(queue, 0, newQueue, first, firstElement);
+    for (int i = oldCapacity; i < newQueue.length; ++i) {
+      newQueue[i] = initializer.create();
     }
-    return index + 1;
+    queue = newQueue;
+    firstElement = 0;
+    lastElement = nofElements;
+    return queue.length >= minCapacity;
+  }
+
+  /**
+   * Wrap an index that has been stepped at most queue.length positions forward.
+   *
+   * @param index int
+   * @return int index in the range 0..queue.length-1
+   */
+  private int wrapIndex(int index) {
+    // Subtract queue.length only if index - queue.length is not negative
+    return index - (queue.length & ~((index - queue.length) >> 31));
+  }
+
+  /**
+   * Get an element without removing it.
+   *
+   * @param i Distance from the front of the queue, 0 for the first element
+   * @return Element at position i
+   * @throws IndexOutOfBoundsException if i is not in the range 0..size()-1
+   */
+  public E get(int i) {
+    if (i < 0 || i >= nofElements) {
+      throw new IndexOutOfBoundsException("Index:" + i + ", size:" + nofElements);
+    }
+    return queue[wrapIndex(firstElement + i)];
+  }
+
+  /**
+   * Pass each element in order to action without removing them and without allocating an iterator.
+   *
+   * @param action Receiver of the elements
+   */
+  @Override
+  public void forEach(Consumer<? super E> action) {
+    int first = Math.min(nofElements, queue.length - firstElement);
+    for (int i = firstElement; i < firstElement + first; ++i) {
+      action.accept(queue[i]);
+    }
+    for (int i = 0; i < nofElements - first; ++i) {
+      action.accept(queue[i]);
+    }
+  }
+
+  /**
+   * Copy the references to the elements in order to dst without removing them, as many as there is room for.
+   * The elements are not copied, so they are overwritten by later calls to putLast once removed from the queue.
+   *
+   * @param dst Destination array, the first element is copied to dst[0]
+   * @return Number of copied elements
+   */
+  public int copyTo(E[] dst) {
+    int n = Math.min(nofElements, dst.length);
+    int first = Math.min(n, queue.length - firstElement);
+    System.arraycopy(queue, firstElement, dst, 0, first);
+    System.arraycopy(queue, 0, dst, first, n - first);
+    return n;
   }
 
   /**
@@ -166,16 +397,20 @@ public class MutableElementQueue<E> implements Iterable<E> {
   public Iterator<E> iterator() {
     return new Iterator<E>() {
       int index = firstElement;
+      int remaining = nofElements;
 
       public boolean hasNext() {
-        return index < lastElement;
+        return remaining > 0;
       }
 
       public E next() {
-        if (index >= lastElement) {
+        if (remaining <= 0) {
           throw new NoSuchElementException();
         }
-        return queue[index++];
+        E obj = queue[index];
+        index = incrementIndex(index);
+        --remaining;
+        return obj;
       }
 
       public void remove() {
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>
+ * An off-heap variant of MutableElementQueue. Each element is a fixed size record in a direct ByteBuffer, so
+ * a queue of tens of millions of records neither allocates objects nor keeps any objects alive for the garbage
+ * collector to trace.
+ * </p>
+ * <p>
+ * Records are accessed through a Record flyweight which is positioned on a slot by putLast, getFirst and peek.
+ * The queue owns one flyweight for writing and one for reading which are reused by every call, so a returned Record
+ * is only valid until the next call of the same kind. As in MutableElementQueue, a record returned by getFirst may be
+ * overwritten after the next putLast. This implementation is not thread safe.
+ * </p>
+ * Usage example:
+ * <pre>
+ * final int TIMESTAMP = 0;
+ * final int VALUE = 8;
+ * OffHeapElementQueue q = new OffHeapElementQueue(10000000, 16);
+ *
+ * q.putLast().putLong(TIMESTAMP, t).putDouble(VALUE, v);
+ * ...
+ * OffHeapElementQueue.Record r = q.getFirst();
+ * if (r != null) {
+ *   process(r.getLong(TIMESTAMP), r.getDouble(VALUE));
+ * }
+ * </pre>
+ */
+public class OffHeapElementQueue {
+  /**
+   * Flyweight giving access to the fields of one record. Offsets are in bytes relative to the start of the record.
+   */
+  public static class Record {
+    private final ByteBuffer buffer;
+    private final int recordSize;
+    private int base;
+
+    Record(ByteBuffer buffer, int recordSize) {
+      this.buffer = buffer;
+      this.recordSize = recordSize;
+    }
+
+    void moveTo(int base) {
+      this.base = base;
+    }
+
+    /**
+     * @return Size of the record in bytes
+     */
+    public int getRecordSize() {
+      return recordSize;
+    }
+
+    public byte getByte(int offset) {
+      assert offset >= 0 && offset + 1 <= recordSize;
+      return buffer.get(base + offset);
+    }
+
+    public Record putByte(int offset, byte value) {
+      assert offset >= 0 && offset + 1 <= recordSize;
+      buffer.put(base + offset, value);
+      return this;
+    }
+
+    public short getShort(int offset) {
+      assert offset >= 0 && offset + 2 <= recordSize;
+      return buffer.getShort(base + offset);
+    }
+
+    public Record putShort(int offset, short value) {
+      assert offset >= 0 && offset + 2 <= recordSize;
+      buffer.putShort(base + offset, value);
+      return this;
+    }
+
+    public int getInt(int offset) {
+      assert offset >= 0 && offset + 4 <= recordSize;
+      return buffer.getInt(base + offset);
+    }
+
+    public Record putInt(int offset, int value) {
+      assert offset >= 0 && offset + 4 <= recordSize;
+      buffer.putInt(base + offset, value);
+      return this;
+    }
+
+    public long getLong(int offset) {
+      assert offset >= 0 && offset + 8 <= recordSize;
+      return buffer.getLong(base + offset);
+    }
+
+    public Record putLong(int offset, long value) {
+      assert offset >= 0 && offset + 8 <= recordSize;
+      buffer.putLong(base + offset, value);
+      return this;
+    }
+
+    public float getFloat(int offset) {
+      assert offset >= 0 && offset + 4 <= recordSize;
+      return buffer.getFloat(base + offset);
+    }
+
+    public Record putFloat(int offset, float value) {
+      assert offset >= 0 && offset + 4 <= recordSize;
+      buffer.putFloat(base + offset, value);
+      return this;
+    }
+
+    public double getDouble(int offset) {
+      assert offset >= 0 && offset + 8 <= recordSize;
+      return buffer.getDouble(base + offset);
+    }
+
+    public Record putDouble(int offset, double value) {
+      assert offset >= 0 && offset + 8 <= recordSize;
+      buffer.putDouble(base + offset, value);
+      return this;
+    }
+
+    /**
+     * Copy bytes from the record.
+     *
+     * @param offset Offset in record of first byte
+     * @param dst    Destination array
+     * @param off    Position in dst of first byte
+     * @param len    Number of bytes to copy
+     */
+    public void getBytes(int offset, byte[] dst, int off, int len) {
+      assert offset >= 0 && offset + len <= recordSize;
+      for (int i = 0; i < len; ++i) {
+        dst[off + i] = buffer.get(base + offset + i);
+      }
+    }
+
+    /**
+     * Copy bytes to the record.
+     *
+     * @param offset Offset in record of first byte
+     * @param src    Source array
+     * @param off    Position in src of first byte
+     * @param len    Number of bytes to copy
+     * @return this record
+     */
+    public Record putBytes(int offset, byte[] src, int off, int len) {
+      assert offset >= 0 && offset + len <= recordSize;
+      for (int i = 0; i < len; ++i) {
+        buffer.put(base + offset + i, src[off + i]);
+      }
+      return this;
+    }
+  }
+
+  private int firstElement = 0;
+  private int lastElement = 0;
+  private int nofElements = 0;
+  private final int maxQueueSize;
+  private final int recordSize;
+  private final Record writeRecord;
+  private final Record readRecord;
+
+  /**
+   * Create a new OffHeapElementQueue with the specified maximum number of records.
+   *
+   * @param maxQueueSize Max number of records in queue. Must be larger than 0.
+   * @param recordSize   Size of each record in bytes. Must be larger than 0.
+   *                     maxQueueSize * recordSize must not exceed Integer.MAX_VALUE.
+   */
+  public OffHeapElementQueue(int maxQueueSize, int recordSize) {
+    if (maxQueueSize <= 0 || recordSize <= 0 || (long) maxQueueSize * recordSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid maxQueueSize:" + maxQueueSize + ",recordSize:" + recordSize);
+    }
+    this.maxQueueSize = maxQueueSize;
+    this.recordSize = recordSize;
+    ByteBuffer buffer = ByteBuffer.allocateDirect(maxQueueSize * recordSize).order(ByteOrder.nativeOrder());
+    this.writeRecord = new Record(buffer, recordSize);
+    this.readRecord = new Record(buffer, recordSize);
+  }
+
+  /**
+   * @return true if queue is empty
+   */
+  public boolean isEmpty() {
+    return nofElements == 0;
+  }
+
+  /**
+   * @return true if queue is full
+   */
+  public boolean isFull() {
+    return nofElements >= maxQueueSize;
+  }
+
+  /**
+   * @return number of records in queue
+   */
+  public int size() {
+    return nofElements;
+  }
+
+  /**
+   * @return number of free records in queue
+   */
+  public int getFree() {
+    return maxQueueSize - nofElements;
+  }
+
+  /**
+   * @return Max number of records
+   */
+  public int getMaxSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * @return Size of each record in bytes
+   */
+  public int getRecordSize() {
+    return recordSize;
+  }
+
+  /**
+   * Look at the record in the first position in this queue without removing it from the queue.
+   *
+   * @return The read flyweight positioned at the first record or null if queue is empty
+   */
+  public Record peek() {
+    if (isEmpty()) {
+      return null;
+    }
+    readRecord.moveTo(firstElement * recordSize);
+    return readRecord;
+  }
+
+  /**
+   * Remove the record in the first position in this queue and return it as the value of the function.
+   *
+   * @return The read flyweight positioned at the removed record or null if queue is empty
+   */
+  public Record getFirst() {
+    if (isEmpty()) {
+      return null;
+    }
+    readRecord.moveTo(firstElement * recordSize);
+    firstElement = incrementIndex(firstElement);
+    nofElements--;
+    return readRecord;
+  }
+
+  /**
+   * Put a record at the end of this queue. The added record is returned to the caller so the caller can
+   * write data to it. The record keeps any data previously written to the slot.
+   *
+   * @return The write flyweight positioned at the added record or null if queue is full
+   */
+  public Record putLast() {
+    if (isFull()) {
+      return null;
+    }
+    writeRecord.moveTo(lastElement * recordSize);
+    lastElement = incrementIndex(lastElement);
+    nofElements++;
+    return writeRecord;
+  }
+
+  /**
+   * Step the index one step forward in queue. Wrap it to 0 if end of array is reached.
+   *
+   * @param index int
+   * @return int index' new position
+   */
+  private int incrementIndex(int index) {
+    if (index >= maxQueueSize - 1) {
+      return 0;
+    }
+    return index + 1;
+  }
+}
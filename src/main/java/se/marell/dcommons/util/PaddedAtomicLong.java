@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An AtomicLong padded to fill a cache line of its own. Used for sequence counters written by different threads
+ * to avoid false sharing.
+ * <p>
+ * Only trailing padding is used. The value field is declared in AtomicLong and the JVM lays out superclass fields
+ * first, so no padding can be placed in front of it. The counters are allocated one after another when their owner
+ * is created, which puts the trailing padding of one counter in front of the next one. In front of the first counter
+ * is its owner, whose fields are mostly final.
+ * </p>
+ */
+class PaddedAtomicLong extends AtomicLong {
+  private static final long serialVersionUID = 1L;
+
+  // Padding against false sharing
+  long p1, p2, p3, p4, p5, p6, p7;
+
+  PaddedAtomicLong() {
+  }
+
+  PaddedAtomicLong(long initialValue) {
+    super(initialValue);
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waits by spinning, then yielding and finally parking the thread for an exponentially growing period between
+ * each retry. Uses little CPU when idle for long periods while still reacting within the max park time, without
+ * any signalling overhead for the other side.
+ */
+public class ParkBackoffWaitStrategy implements WaitStrategy {
+  private final int spins;
+  private final int yields;
+  private final long minParkNanos;
+  private final long maxParkNanos;
+
+  public ParkBackoffWaitStrategy() {
+    this(100, 10, 1000, 1000000);
+  }
+
+  /**
+   * @param spins        Number of retries before starting to yield
+   * @param yields       Number of yielding retries before starting to park
+   * @param minParkNanos First park period in nanoseconds
+   * @param maxParkNanos Max park period in nanoseconds
+   */
+  public ParkBackoffWaitStrategy(int spins, int yields, long minParkNanos, long maxParkNanos) {
+    this.spins = spins;
+    this.yields = yields;
+    this.minParkNanos = minParkNanos;
+    this.maxParkNanos = maxParkNanos;
+  }
+
+  @Override
+  public void await(Object monitor, long timeoutNanos) {
+  }
+
+  @Override
+  public void idle(int idleCount) {
+    if (idleCount < spins) {
+      return;
+    }
+    if (idleCount < spins + yields) {
+      Thread.yield();
+      return;
+    }
+    int parks = Math.min(idleCount - spins - yields, 30);
+    LockSupport.parkNanos(Math.min(minParkNanos << parks, maxParkNanos));
+  }
+
+  @Override
+  public void signal(Object monitor) {
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A bounded priority buffer backed by a fixed size array organized as a d-ary heap. The element with the lowest
+ * priority according to the comparator is at the root of the heap, which makes the buffer suitable for keeping the
+ * top-K elements of a stream: in evict lowest mode an element inserted in a full buffer replaces the lowest element
+ * if it has higher priority, otherwise it is rejected.
+ * </p>
+ * <p>
+ * Like QueueBuffer no objects are allocated when elements are inserted or removed. Insert and remove are
+ * O(log n). drainTo empties the buffer into an array sorted from the highest to the lowest priority without
+ * allocating anything.
+ * </p>
+ * <p>
+ * A heap with 4 children per node is used by default. It is shallower than a binary heap and the children of a
+ * node are adjacent in memory, which usually makes it faster. Null values are not allowed.
+ * </p>
+ * Usage example:
+ * <pre>
+ * PriorityBuffer&lt;Order&gt; top = new PriorityBuffer&lt;Order&gt;(10, Comparator.comparingDouble(Order::getAmount));
+ * top.setEvictLowest(true);
+ * for (Order o : orders) {
+ *   top.offer(o);
+ * }
+ * Order[] largest = new Order[top.size()];
+ * top.drainTo(largest, 0);
+ * </pre>
+ */
+public class PriorityBuffer<E> {
+  private final Object[] heap;
+  private final int arity;
+  private final Comparator<? super E> comparator;
+  private int nofElements = 0;
+  private boolean evictLowest;
+
+  /**
+   * Create a new PriorityBuffer with 4 children per heap node.
+   *
+   * @param maxSize    Max number of items in buffer. Must be larger than 0.
+   * @param comparator Orders the elements from lowest to highest priority
+   */
+  public PriorityBuffer(int maxSize, Comparator<? super E> comparator) {
+    this(maxSize, 4, comparator);
+  }
+
+  /**
+   * Create a new PriorityBuffer.
+   *
+   * @param maxSize    Max number of items in buffer. Must be larger than 0.
+   * @param arity      Number of children per heap node. Must be larger than 1.
+   * @param comparator Orders the elements from lowest to highest priority
+   */
+  public PriorityBuffer(int maxSize, int arity, Comparator<? super E> comparator) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Invalid maxSize:" + maxSize);
+    }
+    if (arity < 2) {
+      throw new IllegalArgumentException("Invalid arity:" + arity);
+    }
+    this.heap = new Object[maxSize];
+    this.arity = arity;
+    this.comparator = comparator;
+  }
+
+  /**
+   * Set evict lowest mode. In this mode offer on a full buffer replaces the lowest element if the new element has
+   * higher priority.
+   *
+   * @param evictLowest true to evict the lowest element when the buffer is full
+   */
+  public synchronized void setEvictLowest(boolean evictLowest) {
+    this.evictLowest = evictLowest;
+  }
+
+  /**
+   * @return true if the buffer is in evict lowest mode
+   */
+  public synchronized boolean isEvictLowest() {
+    return evictLowest;
+  }
+
+  /**
+   * @return true if buffer is empty
+   */
+  public boolean isEmpty() {
+    return nofElements == 0;
+  }
+
+  /**
+   * @return true if buffer is full
+   */
+  public boolean isFull() {
+    return nofElements >= heap.length;
+  }
+
+  /**
+   * @return number of elements in buffer
+   */
+  public int size() {
+    return nofElements;
+  }
+
+  /**
+   * @return Max number of elements in buffer
+   */
+  public int getMaxSize() {
+    return heap.length;
+  }
+
+  /**
+   * Insert an element if there is room for it. In evict lowest mode a full buffer makes room by evicting the
+   * lowest element, provided that obj has higher priority.
+   *
+   * @param obj Object, not null
+   * @return true if the object was inserted
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized boolean offer(E obj) {
+    if (obj == null) {
+      throw new NullPointerException();
+    }
+    if (nofElements < heap.length) {
+      siftUp(nofElements++, obj);
+      return true;
+    }
+    if (!evictLowest || comparator.compare(obj, (E) heap[0]) <= 0) {
+      return false;
+    }
+    siftDown(0, obj);
+    return true;
+  }
+
+  /**
+   * @return The element with the lowest priority
+   * @throws NoSuchElementException if the buffer is empty
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized E peekLowest() {
+    if (nofElements == 0) {
+      throw new NoSuchElementException();
+    }
+    return (E) heap[0];
+  }
+
+  /**
+   * Remove the element with the lowest priority.
+   *
+   * @return The removed element
+   * @throws NoSuchElementException if the buffer is empty
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized E pollLowest() {
+    if (nofElements == 0) {
+      throw new NoSuchElementException();
+    }
+    E lowest = (E) heap[0];
+    E last = (E) heap[--nofElements];
+    heap[nofElements] = null;
+    if (nofElements > 0) {
+      siftDown(0, last);
+    }
+    return lowest;
+  }
+
+  /**
+   * Remove all elements and copy them to dst sorted from the highest to the lowest priority.
+   *
+   * @param dst Destination array with room for size() elements from off
+   * @param off Position in dst of the element with the highest priority
+   * @return Number of removed elements
+   */
+  public synchronized int drainTo(E[] dst, int off) {
+    int n = nofElements;
+    for (int i = n - 1; i >= 0; --i) {
+      dst[off + i] = pollLowest();
+    }
+    return n;
+  }
+
+  /**
+   * Remove all elements.
+   */
+  public synchronized void clear() {
+    for (int i = 0; i < nofElements; ++i) {
+      heap[i] = null;
+    }
+    nofElements = 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void siftUp(int index, E obj) {
+    while (index > 0) {
+      int parent = (index - 1) / arity;
+      if (comparator.compare(obj, (E) heap[parent]) >= 0) {
+        break;
+      }
+      heap[index] = heap[parent];
+      index = parent;
+    }
+    heap[index] = obj;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void siftDown(int index, E obj) {
+    while (true) {
+      int child = index * arity + 1;
+      if (child >= nofElements) {
+        break;
+      }
+      // Find the child with the lowest priority
+      int end = Math.min(child + arity, nofElements);
+      int min = child;
+      for (int c = child + 1; c < end; ++c) {
+        if (comparator.compare((E) heap[c], (E) heap[min]) < 0) {
+          min = c;
+        }
+      }
+      if (comparator.compare((E) heap[min], obj) >= 0) {
+        break;
+      }
+      heap[index] = heap[min];
+      index = min;
+    }
+    heap[index] = obj;
+  }
+}
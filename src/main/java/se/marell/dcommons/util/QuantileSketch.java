@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Approximate quantiles such as the median or the 99th percentile of an unbounded stream of values in constant
+ * memory, with a guaranteed relative accuracy.
+ * </p>
+ * <p>
+ * The values are counted in logarithmic buckets, bucket k holding the values in (gamma^(k-1), gamma^k] where
+ * gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy), with separate buckets for negative values and a count of
+ * the values close to zero. A quantile is returned as the middle of its bucket, which is within relativeAccuracy of
+ * the exact quantile. The number of buckets for each sign is limited by maxBuckets. When a new value would need
+ * more buckets the buckets with the smallest magnitudes are collapsed into one, so the accuracy is only lost for
+ * the values closest to zero. With the default accuracy of 1% and 2048 buckets the range of values kept with full
+ * accuracy spans about 17 orders of magnitude.
+ * </p>
+ * <p>
+ * Two sketches with the same accuracy are combined with merge, giving the same result as if all values had been
+ * added to one of them. The class is not thread safe, the sketch must not be modified while it is merged into
+ * another one.
+ * </p>
+ * Usage example:
+ * <pre>
+ * QuantileSketch sketch = new QuantileSketch();
+ * ...
+ * sketch.add(latency);
+ * ...
+ * double p99 = sketch.getQuantile(0.99);
+ * </pre>
+ */
+public class QuantileSketch {
+  private static final int DEFAULT_MAX_BUCKETS = 2048;
+
+  /**
+   * Bucket counts of one sign, bucket key k at counts[k - offset]. Allocated on first use.
+   */
+  private static final class Store {
+    private final int maxBuckets;
+    private long[] counts;
+    private int offset;
+    private int minKey;
+    private int maxKey;
+    private long total;
+
+    private Store(int maxBuckets) {
+      this.maxBuckets = maxBuckets;
+    }
+
+    private void add(int key, long n) {
+      if (counts == null) {
+        counts = new long[maxBuckets];
+      }
+      if (total == 0) {
+        offset = key - maxBuckets / 2;
+        minKey = maxKey = key;
+      }
+      int lo = Math.min(minKey, key);
+      int hi = Math.max(maxKey, key);
+      if (hi - lo >= maxBuckets) {
+        int newLo = hi - maxBuckets + 1;
+        collapse(newLo);
+        key = Math.max(key, newLo);
+        lo = newLo;
+      }
+      if (lo < offset || hi >= offset + maxBuckets) {
+        move(lo - (maxBuckets - (hi - lo + 1)) / 2);
+      }
+      counts[key - offset] += n;
+      total += n;
+      minKey = Math.min(minKey, key);
+      maxKey = Math.max(maxKey, key);
+    }
+
+    // Add the counts of the buckets below newLo to the bucket newLo
+    private void collapse(int newLo) {
+      long collapsed = 0;
+      for (int k = minKey; k <= maxKey && k < newLo; ++k) {
+        collapsed += counts[k - offset];
+        counts[k - offset] = 0;
+      }
+      if (maxKey < newLo) {
+        // All buckets are collapsed, start over with newLo at the lowest position
+        offset = newLo;
+        maxKey = newLo;
+      } else {
+        minKey = Math.max(minKey, newLo);
+        if (newLo < offset || maxKey >= offset + maxBuckets) {
+          move(newLo);
+        }
+      }
+      minKey = newLo;
+      counts[newLo - offset] += collapsed;
+    }
+
+    // Move the buckets to have newOffset as the lowest key position
+    private void move(int newOffset) {
+      int n = maxKey - minKey + 1;
+      System.arraycopy(counts, minKey - offset, counts, minKey - newOffset, n);
+      Arrays.fill(counts, 0, minKey - newOffset, 0);
+      Arrays.fill(counts, minKey - newOffset + n, maxBuckets, 0);
+      offset = newOffset;
+    }
+
+    private long get(int key) {
+      return counts[key - offset];
+    }
+
+    private void clear() {
+      if (counts != null) {
+        Arrays.fill(counts, 0);
+      }
+      total = 0;
+    }
+  }
+
+  private final double relativeAccuracy;
+  private final double gamma;
+  private final double logGamma;
+  private final Store positive;
+  private final Store negative;    // Magnitudes of negative values
+  private long zeroCount;
+  private long count;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  /**
+   * Create a sketch with 1% relative accuracy and 2048 buckets for each sign.
+   */
+  public QuantileSketch() {
+    this(0.01, DEFAULT_MAX_BUCKETS);
+  }
+
+  /**
+   * @param relativeAccuracy Max relative error of the returned quantiles, at least 1e-6 and less than 1
+   * @param maxBuckets       Max number of buckets for each sign, larger than 1
+   */
+  public QuantileSketch(double relativeAccuracy, int maxBuckets) {
+    if (!(relativeAccuracy >= 1e-6 && relativeAccuracy < 1)) {
+      throw new IllegalArgumentException("Invalid relativeAccuracy:" + relativeAccuracy);
+    }
+    if (maxBuckets <= 1) {
+      throw new IllegalArgumentException("Invalid maxBuckets:" + maxBuckets);
+    }
+    this.relativeAccuracy = relativeAccuracy;
+    this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+    this.logGamma = Math.log(gamma);
+    this.positive = new Store(maxBuckets);
+    this.negative = new Store(maxBuckets);
+  }
+
+  /**
+   * Add a value.
+   *
+   * @param value Finite value
+   */
+  public void add(double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      throw new IllegalArgumentException("Invalid value:" + value);
+    }
+    if (value >= Double.MIN_NORMAL) {
+      positive.add(key(value), 1);
+    } else if (value <= -Double.MIN_NORMAL) {
+      negative.add(key(-value), 1);
+    } else {
+      ++zeroCount;
+    }
+    ++count;
+    if (value < min) {
+      min = value;
+    }
+    if (value > max) {
+      max = value;
+    }
+  }
+
+  /**
+   * Add all values of another sketch to this one.
+   *
+   * @param other Sketch with the same relative accuracy, not modified
+   */
+  public void merge(QuantileSketch other) {
+    if (other.gamma != gamma) {
+      throw new IllegalArgumentException("Invalid relativeAccuracy:" + other.relativeAccuracy);
+    }
+    merge(positive, other.positive);
+    merge(negative, other.negative);
+    zeroCount += other.zeroCount;
+    count += other.count;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  /**
+   * Remove all values.
+   */
+  public void clear() {
+    positive.clear();
+    negative.clear();
+    zeroCount = 0;
+    count = 0;
+    min = Double.POSITIVE_INFINITY;
+    max = Double.NEGATIVE_INFINITY;
+  }
+
+  /**
+   * @return Number of values
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return Relative accuracy of the returned quantiles
+   */
+  public double getRelativeAccuracy() {
+    return relativeAccuracy;
+  }
+
+  /**
+   * @return Smallest value or NaN if no value has been added
+   */
+  public double getMin() {
+    return count == 0 ? Double.NaN : min;
+  }
+
+  /**
+   * @return Largest value or NaN if no value has been added
+   */
+  public double getMax() {
+    return count == 0 ? Double.NaN : max;
+  }
+
+  /**
+   * Get the value with the rank quantile * (count - 1) among the values sorted in increasing order. The min and
+   * the max are exact.
+   *
+   * @param quantile Quantile, 0 for the min, 0.5 for the median and 1 for the max
+   * @return Approximate value or NaN if no value has been added
+   */
+  public double getQuantile(double quantile) {
+    if (!(quantile >= 0 && quantile <= 1)) {
+      throw new IllegalArgumentException("Invalid quantile:" + quantile);
+    }
+    if (count == 0) {
+      return Double.NaN;
+    }
+    long rank = (long) (quantile * (count - 1));
+    if (rank == 0) {
+      return min;
+    }
+    if (rank == count - 1) {
+      return max;
+    }
+    double value;
+    if (rank < negative.total) {
+      // Negative values in increasing order, largest magnitude first
+      long n = 0;
+      int k = negative.maxKey;
+      while ((n += negative.get(k)) <= rank) {
+        --k;
+      }
+      value = -value(k);
+    } else if (rank < negative.total + zeroCount) {
+      value = 0;
+    } else {
+      long n = negative.total + zeroCount;
+      int k = positive.minKey;
+      while ((n += positive.get(k)) <= rank) {
+        ++k;
+      }
+      value = value(k);
+    }
+    // The exact quantile is within min and max
+    return Math.max(min, Math.min(max, value));
+  }
+
+  private static void merge(Store dst, Store src) {
+    if (src.total == 0) {
+      return;
+    }
+    for (int k = src.minKey; k <= src.maxKey; ++k) {
+      long n = src.get(k);
+      if (n != 0) {
+        dst.add(k, n);
+      }
+    }
+  }
+
+  private int key(double magnitude) {
+    return (int) Math.ceil(Math.log(magnitude) / logGamma);
+  }
+
+  // Middle of bucket k, within relativeAccuracy of all values in the bucket
+  private double value(int key) {
+    return 2 * Math.pow(gamma, key) / (gamma + 1);
+  }
+}
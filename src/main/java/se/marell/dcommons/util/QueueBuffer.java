@@ -23,8 +23,15 @@
  */
 package se.marell.dcommons.util;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p>
@@ -39,23 +46,125 @@ import java.util.NoSuchElementException;
  * about that the LinkedList implementation is allocating a list node-object in addition to the objects you are
  * storing in the queue.
  * </p>
+ * <p>
+ * Threads that want to wait for an element or for free space use take and put, or poll and offer with a timeout.
+ * How they wait is decided by the WaitStrategy given at construction.
+ * </p>
+ * <p>
+ * In overwrite oldest mode a full queue works as a sliding window over the last maxQueueSize elements: putLast
+ * evicts the first element instead of failing. visitWindow gives access to the current window without copying.
+ * </p>
+ * <p>
+ * The ring index is wrapped with arithmetic instead of a compare and branch, for any maxQueueSize. The backing array
+ * is exactly maxQueueSize long.
+ * A queue can be made growable with setGrowLimit, in which case a full queue doubles its capacity, keeping the
+ * order of the elements, until the limit is reached.
+ * </p>
+ * <p>
+ * Occupancy and throughput counters are collected when QueueMetrics are attached with setMetrics.
+ * </p>
+ * <p>
+ * Use QueueBufferAdapter to pass a QueueBuffer where a java.util.Queue or BlockingQueue is expected.
+ * </p>
  */
 public class QueueBuffer<E> implements Iterable<E> {
+  /**
+   * Receives the content of the queue in order as at most two contiguous segments of the backing array.
+   */
+  public interface WindowVisitor {
+    /**
+     * Called with the lock of the queue held. The array must not be modified nor kept after the call.
+     *
+     * @param elements Backing array of the queue
+     * @param from     Index of the first element in the segment
+     * @param to       Index after the last element in the segment
+     */
+    void visit(Object[] elements, int from, int to);
+  }
+
   private int firstElement = 0;
   private int lastElement = 0;
   private int nofElements = 0;
   private int maxQueueSize;
   private Object[] queue;
+  private int growLimit;
+  private final WaitStrategy waitStrategy;
+  private boolean overwriteOldest;
+  private QueueMetrics metrics;
 
   /**
    * Create a new QueueBuffer with the specified maximum number of elements.
+   * Threads waiting in take or put block on the queue's monitor.
    *
    * @param maxQueueSize Max number of items in queue. Must be larger than 0.
    */
   public QueueBuffer(int maxQueueSize) {
+    this(maxQueueSize, new BlockingWaitStrategy());
+  }
+
+  /**
+   * Create a new QueueBuffer with the specified maximum number of elements.
+   *
+   * @param maxQueueSize Max number of items in queue. Must be larger than 0.
+   * @param waitStrategy How threads wait in take, put and the timed poll and offer
+   */
+  public QueueBuffer(int maxQueueSize, WaitStrategy waitStrategy) {
     assert maxQueueSize > 0;
     this.maxQueueSize = maxQueueSize;
     this.queue = new Object[maxQueueSize];
+    this.growLimit = maxQueueSize;
+    this.waitStrategy = waitStrategy;
+  }
+
+  /**
+   * Set overwrite oldest mode. In this mode putLast, offer, put and putAll on a full queue evict elements from the
+   * front of the queue to make room, instead of failing or waiting.
+   *
+   * @param overwriteOldest true to evict the oldest elements when the queue is full
+   */
+  public synchronized void setOverwriteOldest(boolean overwriteOldest) {
+    this.overwriteOldest = overwriteOldest;
+  }
+
+  /**
+   * @return true if the queue is in overwrite oldest mode
+   */
+  public synchronized boolean isOverwriteOldest() {
+    return overwriteOldest;
+  }
+
+  /**
+   * Make the queue growable. When an element is inserted in a full queue, the capacity is doubled, but never beyond
+   * growLimit. The order of the elements is kept. Overwrite oldest mode and full queue checks only apply when
+   * the queue has grown to the limit.
+   *
+   * @param growLimit Max capacity the queue may grow to. Not growable if not larger than the current capacity.
+   */
+  public synchronized void setGrowLimit(int growLimit) {
+    this.growLimit = growLimit;
+  }
+
+  /**
+   * @return Max capacity the queue may grow to
+   */
+  public synchronized int getGrowLimit() {
+    return Math.max(growLimit, maxQueueSize);
+  }
+
+  /**
+   * Attach metrics that are updated by all operations on this queue.
+   *
+   * @param metrics Metrics or null to disable metrics
+   */
+  public synchronized void setMetrics(QueueMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * @return Attached metrics or null
+   */
+  public synchronized QueueMetrics getMetrics() {
+    return metrics;
   }
 
   /**
@@ -87,7 +196,7 @@ public class QueueBuffer<E> implements Iterable<E> {
   }
 
   /**
-   * @return Max number of elements in QueueBuffer
+   * @return Max number of elements in QueueBuffer with its current capacity
    */
   public int getMaxSize() {
     return maxQueueSize;
@@ -114,6 +223,9 @@ public class QueueBuffer<E> implements Iterable<E> {
    */
   public synchronized E getFirst() {
     if (isEmpty()) {
+      if (metrics != null) {
+        metrics.rejectedEmpty();
+      }
       return null;
     }
     Object obj = queue[firstElement];
@@ -122,24 +234,315 @@ public class QueueBuffer<E> implements Iterable<E> {
     queue[firstElement] = null;
     firstElement = incrementIndex(firstElement);
     nofElements--;
+    if (metrics != null) {
+      metrics.dequeued(1, nofElements);
+    }
+    waitStrategy.signal(this);
     return (E) obj;
   }
 
+  /**
+   * Remove the object in the first position in this queue, waiting for an element to become available
+   * if the queue is empty.
+   *
+   * @return Object at first position in queue
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public E take() throws InterruptedException {
+    for (int idleCount = 0; ; ++idleCount) {
+      synchronized (this) {
+        if (!isEmpty()) {
+          return getFirst();
+        }
+        waitStrategy.await(this, Long.MAX_VALUE);
+        if (!isEmpty()) {
+          return getFirst();
+        }
+      }
+      waitStrategy.idle(idleCount);
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+  }
+
+  /**
+   * Remove the object in the first position in this queue, waiting up to the specified time for an element
+   * to become available if the queue is empty.
+   *
+   * @param timeout Max time to wait
+   * @param unit    Unit of timeout
+   * @return Object at first position in queue or null if the timeout elapsed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (int idleCount = 0; ; ++idleCount) {
+      synchronized (this) {
+        if (!isEmpty()) {
+          return getFirst();
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          if (metrics != null) {
+            metrics.rejectedEmpty();
+          }
+          return null;
+        }
+        waitStrategy.await(this, remaining);
+        if (!isEmpty()) {
+          return getFirst();
+        }
+      }
+      waitStrategy.idle(idleCount);
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+  }
+
   /**
    * <p>
-   * Put an item at the end of this queue.
+   * Put an item at the end of this queue. In overwrite oldest mode the first element is evicted if the queue is full.
    * </p>
-   * <b>Precondition:</b> QueueBuffer not full
+   * <b>Precondition:</b> QueueBuffer not full or in overwrite oldest mode
    * <b>Postcondition:</b>	Element is putLast at end of queue
    * QueueBuffer is not empty
-   * Number of elements one more in queue
+   * Number of elements one more in queue, unless an element was evicted
    *
    * @param obj Object
+   * @throws IllegalStateException if the queue is full and not in overwrite oldest mode
    */
   public synchronized void putLast(E obj) {
+    if (isFull() && !grow(nofElements + 1)) {
+      if (!overwriteOldest) {
+        if (metrics != null) {
+          metrics.rejectedFull();
+        }
+        throw new IllegalStateException("Queue is full");
+      }
+      // The slot of the first element is the next free slot in a full queue
+      firstElement = incrementIndex(firstElement);
+      nofElements--;
+      if (metrics != null) {
+        metrics.evicted(1);
+      }
+    }
     queue[lastElement] = obj;
     lastElement = incrementIndex(lastElement);
     nofElements++;
+    if (metrics != null) {
+      metrics.enqueued(1, nofElements);
+    }
+    waitStrategy.signal(this);
+  }
+
+  /**
+   * Put an item at the end of this queue if there is room for it. In overwrite oldest mode there is always room.
+   *
+   * @param obj Object
+   * @return true if the object was inserted, false if the queue is full
+   */
+  public synchronized boolean offer(E obj) {
+    if (!insert(obj)) {
+      if (metrics != null) {
+        metrics.rejectedFull();
+      }
+      return false;
+    }
+    return true;
+  }
+
+  private boolean insert(E obj) {
+    if (isFull() && !overwriteOldest && !grow(nofElements + 1)) {
+      return false;
+    }
+    putLast(obj);
+    return true;
+  }
+
+  /**
+   * Put an item at the end of this queue, waiting for free space if the queue is full.
+   *
+   * @param obj Object
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void put(E obj) throws InterruptedException {
+    for (int idleCount = 0; ; ++idleCount) {
+      synchronized (this) {
+        if (insert(obj)) {
+          return;
+        }
+        waitStrategy.await(this, Long.MAX_VALUE);
+        if (insert(obj)) {
+          return;
+        }
+      }
+      waitStrategy.idle(idleCount);
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+  }
+
+  /**
+   * Put an item at the end of this queue, waiting up to the specified time for free space if the queue is full.
+   *
+   * @param obj     Object
+   * @param timeout Max time to wait
+   * @param unit    Unit of timeout
+   * @return true if the object was inserted, false if the timeout elapsed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean offer(E obj, long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (int idleCount = 0; ; ++idleCount) {
+      synchronized (this) {
+        if (insert(obj)) {
+          return true;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          if (metrics != null) {
+            metrics.rejectedFull();
+          }
+          return false;
+        }
+        waitStrategy.await(this, remaining);
+        if (insert(obj)) {
+          return true;
+        }
+      }
+      waitStrategy.idle(idleCount);
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+  }
+
+  /**
+   * Remove up to max objects from the front of this queue and pass them in order to consumer.
+   * The queue's lock is held during the whole batch, also while the consumer is called.
+   *
+   * @param consumer Receiver of the removed objects
+   * @param max      Max number of objects to remove
+   * @return Number of removed objects
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized int drainTo(Consumer<? super E> consumer, int max) {
+    int n = Math.min(max, nofElements);
+    int index = firstElement;
+    int count = 0;
+    try {
+      while (count < n) {
+        Object obj = queue[index];
+        queue[index] = null;
+        index = incrementIndex(index);
+        ++count;
+        consumer.accept((E) obj);
+      }
+    } finally {
+      firstElement = index;
+      nofElements -= count;
+      if (metrics != null) {
+        metrics.dequeued(count, max, nofElements);
+      }
+      if (count > 0) {
+        waitStrategy.signal(this);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Remove up to len objects from the front of this queue and copy them in order to dst.
+   *
+   * @param dst Destination array
+   * @param off Position in dst of the first removed object
+   * @param len Max number of objects to remove
+   * @return Number of removed objects
+   */
+  public synchronized int drainTo(E[] dst, int off, int len) {
+    int n = Math.min(len, nofElements);
+    if (metrics != null) {
+      metrics.dequeued(n, len, nofElements - n);
+    }
+    if (n <= 0) {
+      return 0;
+    }
+    int first = Math.min(n, maxQueueSize - firstElement);
+    System.arraycopy(queue, firstElement, dst, off, first);
+    System.arraycopy(queue, 0, dst, off + first, n - first);
+    // Release the references to make the objects eligible for garbage collection
+    Arrays.fill(queue, firstElement, firstElement + first, null);
+    Arrays.fill(queue, 0, n - first, null);
+    firstElement = wrapIndex(firstElement + n);
+    nofElements -= n;
+    waitStrategy.signal(this);
+    return n;
+  }
+
+  /**
+   * Put up to len objects from src at the end of this queue, as many as there is room for.
+   * In overwrite oldest mode all objects are inserted, evicting as many elements from the front of the queue as
+   * needed. If len is larger than maxQueueSize only the last maxQueueSize objects are kept.
+   *
+   * @param src Source array
+   * @param off Position in src of the first object to insert
+   * @param len Max number of objects to insert
+   * @return Number of inserted objects
+   */
+  public synchronized int putAll(E[] src, int off, int len) {
+    if (len > maxQueueSize - nofElements) {
+      grow(nofElements + len);
+    }
+    if (overwriteOldest && len > maxQueueSize - nofElements) {
+      int skipped = Math.max(len - maxQueueSize, 0);
+      off += skipped;
+      len -= skipped;
+      // The evicted elements occupy the slots following the free slots, so they are overwritten by the copy below
+      int evicted = len - (maxQueueSize - nofElements);
+      firstElement = wrapIndex(firstElement + evicted);
+      nofElements -= evicted;
+      if (metrics != null) {
+        // The skipped objects count as inserted and evicted at once, like putLast on a full queue
+        metrics.overwritten(skipped);
+        metrics.evicted(evicted);
+      }
+      return skipped + putAll(src, off, len);
+    }
+    int n = Math.min(len, maxQueueSize - nofElements);
+    if (metrics != null) {
+      metrics.enqueued(n, len, nofElements + n);
+    }
+    if (n <= 0) {
+      return 0;
+    }
+    int first = Math.min(n, maxQueueSize - lastElement);
+    System.arraycopy(src, off, queue, lastElement, first);
+    System.arraycopy(src, off + first, queue, 0, n - first);
+    lastElement = wrapIndex(lastElement + n);
+    nofElements += n;
+    waitStrategy.signal(this);
+    return n;
+  }
+
+  /**
+   * Pass the current content of the queue to visitor without copying it. The content is passed in order as at
+   * most two segments of the backing array: the first segment from the first element to the end of the array and
+   * the second from the start of the array to the last element. Nothing is passed if the queue is empty.
+   *
+   * @param visitor Receiver of the segments
+   */
+  public synchronized void visitWindow(WindowVisitor visitor) {
+    if (isEmpty()) {
+      return;
+    }
+    int first = Math.min(nofElements, maxQueueSize - firstElement);
+    visitor.visit(queue, firstElement, firstElement + first);
+    if (first < nofElements) {
+      visitor.visit(queue, 0, nofElements - first);
+    }
   }
 
   /**
@@ -176,6 +579,46 @@ public class QueueBuffer<E> implements Iterable<E> {
     return -1;
   }
 
+  /**
+   * Remove the first occurrence of an object from the queue. The elements behind it are moved one step towards
+   * the front of the queue. If obj is null the first occurrence of null is removed.
+   *
+   * @param obj Object
+   * @return true if the object was found and removed
+   */
+  public synchronized boolean remove(Object obj) {
+    for (int i = 0; i < nofElements; ++i) {
+      Object o = queue[wrapIndex(firstElement + i)];
+      if (obj == null ? o == null : obj.equals(o)) {
+        removeAt(i);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Remove the element at distance i from the front of the queue and move the elements behind it one step forward.
+   *
+   * @param i Distance from the front of the queue, in the range 0..size()-1
+   */
+  private void removeAt(int i) {
+    int index = wrapIndex(firstElement + i);
+    for (int j = i + 1; j < nofElements; ++j) {
+      int next = incrementIndex(index);
+      queue[index] = queue[next];
+      index = next;
+    }
+    // Release the reference of the last slot, which is free now
+    queue[index] = null;
+    lastElement = index;
+    --nofElements;
+    if (metrics != null) {
+      metrics.dequeued(1, nofElements);
+    }
+    waitStrategy.signal(this);
+  }
+
   /**
    * Step the index one step forward in queue. Wrap it to 0 if end of array is reached.
    * <p/>
@@ -186,32 +629,168 @@ public class QueueBuffer<E> implements Iterable<E> {
    * @return int index' new position
    */
   private int incrementIndex(int index) {
-    if (index >= maxQueueSize - 1) {
-      return 0;
+    // next - maxQueueSize is negative, all ones after the shift, until the end of the array is reached
+    int next = index + 1;
+    return next & ((next - maxQueueSize) >> 31);
+  }
+
+  /**
+   * Grow the capacity to at least minCapacity by doubling it, but not beyond the grow limit.
+   * The elements are moved to the start of the new array.
+   *
+   * @param minCapacity Wanted capacity
+   * @return true if the capacity is at least minCapacity
+   */
+  private boolean grow(int minCapacity) {
+    if (maxQueueSize >= growLimit) {
+      return maxQueueSize >= minCapacity;
     }
-    return index + 1;
+    long newCapacity = maxQueueSize;
+    while (newCapacity < minCapacity) {
+      newCapacity *= 2;
+    }
+    newCapacity = Math.min(newCapacity, growLimit);
+    Object[] newQueue = new Object[(int) newCapacity];
+    int first = Math.min(nofElements, maxQueueSize - firstElement);
+    System.arraycopy(queue, firstElement, newQueue, 0, first);
+    System.arraycopy(queue, 0, newQueue, first, nofElements - first);
+    queue = newQueue;
+    maxQueueSize = newQueue.length;
+    firstElement = 0;
+    lastElement = nofElements;
+    return maxQueueSize >= minCapacity;
   }
 
   /**
-   * @return Iterator for iterator the queue content
+   * Wrap an index that has been stepped at most maxQueueSize positions forward.
+   *
+   * @param index int
+   * @return int index in the range 0..maxQueueSize-1
+   */
+  private int wrapIndex(int index) {
+    // Subtract maxQueueSize only if index - maxQueueSize is not negative
+    return index - (maxQueueSize & ~((index - maxQueueSize) >> 31));
+  }
+
+  /**
+   * Get an element without removing it.
+   *
+   * @param i Distance from the front of the queue, 0 for the first element
+   * @return Element at position i
+   * @throws IndexOutOfBoundsException if i is not in the range 0..size()-1
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized E get(int i) {
+    if (i < 0 || i >= nofElements) {
+      throw new IndexOutOfBoundsException("Index:" + i + ", size:" + nofElements);
+    }
+    return (E) queue[wrapIndex(firstElement + i)];
+  }
+
+  /**
+   * Pass each element in order to action without removing them and without allocating an iterator.
+   * The queue's lock is held while action is called.
+   *
+   * @param action Receiver of the elements
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public synchronized void forEach(Consumer<? super E> action) {
+    int first = Math.min(nofElements, maxQueueSize - firstElement);
+    for (int i = firstElement; i < firstElement + first; ++i) {
+      action.accept((E) queue[i]);
+    }
+    for (int i = 0; i < nofElements - first; ++i) {
+      action.accept((E) queue[i]);
+    }
+  }
+
+  /**
+   * Copy the elements in order to dst without removing them, as many as there is room for.
+   *
+   * @param dst Destination array, the first element is copied to dst[0]
+   * @return Number of copied elements
+   */
+  public synchronized int copyTo(E[] dst) {
+    int n = Math.min(nofElements, dst.length);
+    int first = Math.min(n, maxQueueSize - firstElement);
+    System.arraycopy(queue, firstElement, dst, 0, first);
+    System.arraycopy(queue, 0, dst, first, n - first);
+    return n;
+  }
+
+  /**
+   * Copy the content of the queue in order to a new array.
+   *
+   * @return Array with the elements from the first to the last
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized Object[] toArray() {
+    Object[] a = new Object[nofElements];
+    copyTo((E[]) a);
+    return a;
+  }
+
+  /**
+   * Create a spliterator over a snapshot of the queue content. The spliterator is sized and splits evenly, so it
+   * can be used for parallel streams, and it is not affected by later modifications of the queue.
+   *
+   * @return Spliterator over a copy of the queue content
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public Spliterator<E> spliterator() {
+    return (Spliterator<E>) Spliterators.spliterator(toArray(), Spliterator.ORDERED);
+  }
+
+  /**
+   * @return Stream over a snapshot of the queue content
+   */
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   * @return Parallel stream over a snapshot of the queue content
+   */
+  public Stream<E> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
+  /**
+   * The iterator is not thread safe and must not be used while the queue is modified by other threads. Use
+   * spliterator or toArray to iterate a queue used by other threads. remove removes the last returned element
+   * from the queue.
+   *
+   * @return Iterator for iterating the queue content in order, from first element to last element.
    */
   public Iterator<E> iterator() {
     return new Iterator<E>() {
-      int index = firstElement;
+      int pos;        // Distance from the front of the next element
+      int last = -1;  // Distance from the front of the last returned element
 
       public boolean hasNext() {
-        return index < lastElement;
+        return pos < nofElements;
       }
 
+      @SuppressWarnings("unchecked")
       public E next() {
-        if (index >= lastElement) {
+        if (pos >= nofElements) {
           throw new NoSuchElementException();
         }
-        return (E) queue[index++];
+        last = pos++;
+        return (E) queue[wrapIndex(firstElement + last)];
       }
 
       public void remove() {
-        throw new UnsupportedOperationException();
+        if (last < 0) {
+          throw new IllegalStateException();
+        }
+        synchronized (QueueBuffer.this) {
+          removeAt(last);
+        }
+        pos = last;
+        last = -1;
       }
     };
   }
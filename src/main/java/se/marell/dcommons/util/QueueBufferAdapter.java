@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Adapts a QueueBuffer to the java.util.Queue and java.util.concurrent.BlockingQueue interfaces, for example to
+ * be used as the work queue of a ThreadPoolExecutor. All operations are delegated to the QueueBuffer and wait
+ * with its WaitStrategy.
+ * </p>
+ * <p>
+ * As required by BlockingQueue null elements are not allowed. Iterators and spliterators operate on a snapshot
+ * of the content taken when they are created. Iterator remove removes the first occurrence of the last returned
+ * element from the queue, as remove(Object) does, which is what ThreadPoolExecutor uses for remove and purge.
+ * </p>
+ * Usage example:
+ * <pre>
+ * QueueBuffer&lt;Runnable&gt; buffer = new QueueBuffer&lt;Runnable&gt;(1000);
+ * ExecutorService executor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.SECONDS,
+ *     new QueueBufferAdapter&lt;Runnable&gt;(buffer));
+ * </pre>
+ */
+public class QueueBufferAdapter<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+  private final QueueBuffer<E> buffer;
+
+  /**
+   * @param buffer Queue to adapt
+   */
+  public QueueBufferAdapter(QueueBuffer<E> buffer) {
+    this.buffer = buffer;
+  }
+
+  /**
+   * @return The adapted queue
+   */
+  public QueueBuffer<E> getQueueBuffer() {
+    return buffer;
+  }
+
+  @Override
+  public boolean offer(E e) {
+    checkNotNull(e);
+    return buffer.offer(e);
+  }
+
+  @Override
+  public void put(E e) throws InterruptedException {
+    checkNotNull(e);
+    buffer.put(e);
+  }
+
+  @Override
+  public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+    checkNotNull(e);
+    return buffer.offer(e, timeout, unit);
+  }
+
+  @Override
+  public E poll() {
+    return buffer.getFirst();
+  }
+
+  @Override
+  public E take() throws InterruptedException {
+    return buffer.take();
+  }
+
+  @Override
+  public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+    return buffer.poll(timeout, unit);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E peek() {
+    synchronized (buffer) {
+      return buffer.isEmpty() ? null : (E) buffer.peek();
+    }
+  }
+
+  @Override
+  public int size() {
+    synchronized (buffer) {
+      return buffer.size();
+    }
+  }
+
+  @Override
+  public int remainingCapacity() {
+    synchronized (buffer) {
+      return buffer.isOverwriteOldest() ? Integer.MAX_VALUE : buffer.getGrowLimit() - buffer.size();
+    }
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    return o != null && buffer.remove(o);
+  }
+
+  @Override
+  public int drainTo(Collection<? super E> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(Collection<? super E> c, int maxElements) {
+    if (c == this) {
+      throw new IllegalArgumentException("Can not drain to itself");
+    }
+    return buffer.drainTo(c::add, maxElements);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Iterator<E> iterator() {
+    final Object[] snapshot = buffer.toArray();
+    return new Iterator<E>() {
+      int pos;
+      E last;
+
+      @Override
+      public boolean hasNext() {
+        return pos < snapshot.length;
+      }
+
+      @Override
+      public E next() {
+        if (pos >= snapshot.length) {
+          throw new NoSuchElementException();
+        }
+        last = (E) snapshot[pos++];
+        return last;
+      }
+
+      @Override
+      public void remove() {
+        if (last == null) {
+          throw new IllegalStateException();
+        }
+        buffer.remove(last);
+        last = null;
+      }
+    };
+  }
+
+  @Override
+  public Spliterator<E> spliterator() {
+    return buffer.spliterator();
+  }
+
+  @Override
+  public Object[] toArray() {
+    return buffer.toArray();
+  }
+
+  private static void checkNotNull(Object e) {
+    if (e == null) {
+      throw new NullPointerException();
+    }
+  }
+}
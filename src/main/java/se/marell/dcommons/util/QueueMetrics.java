@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Counters describing how full a queue gets and how fast elements move through it. Attach an instance to a
+ * QueueBuffer or MutableElementQueue with setMetrics. A queue without metrics only pays for a null check.
+ * </p>
+ * <p>
+ * The occupancy histogram samples the number of elements in the queue after each insert or remove operation, with
+ * a batch operation counting as one sample. Bucket 0 counts an empty queue and bucket k, for k &gt; 0, counts
+ * between 2^(k-1) and 2^k-1 elements.
+ * </p>
+ * <p>
+ * The counters are updated by the thread operating on the queue without any synchronization of their own, so
+ * snapshot and the JMX attributes may be slightly out of date when read by another thread. An instance must only be
+ * attached to one queue.
+ * </p>
+ * Usage example:
+ * <pre>
+ * QueueMetrics metrics = new QueueMetrics();
+ * queue.setMetrics(metrics);
+ * metrics.register("inbound");
+ * ...
+ * QueueMetrics.Snapshot s = metrics.snapshot();
+ * System.out.println(s.getHighWaterMark() + " of " + queue.getMaxSize());
+ * </pre>
+ */
+public class QueueMetrics implements QueueMetricsMBean {
+  /**
+   * Number of buckets in the occupancy histogram.
+   */
+  public static final int BUCKETS = 32;
+
+  /**
+   * An immutable copy of the counters at one point in time.
+   */
+  public static final class Snapshot {
+    private final long enqueueCount;
+    private final long dequeueCount;
+    private final long evictedCount;
+    private final long fullCount;
+    private final long emptyCount;
+    private final int highWaterMark;
+    private final long[] occupancyHistogram;
+    private final long timestampNanos;
+
+    private Snapshot(QueueMetrics m) {
+      this.enqueueCount = m.enqueueCount;
+      this.dequeueCount = m.dequeueCount;
+      this.evictedCount = m.evictedCount;
+      this.fullCount = m.fullCount;
+      this.emptyCount = m.emptyCount;
+      this.highWaterMark = m.highWaterMark;
+      this.occupancyHistogram = m.occupancyHistogram.clone();
+      this.timestampNanos = System.nanoTime();
+    }
+
+    public long getEnqueueCount() {
+      return enqueueCount;
+    }
+
+    public long getDequeueCount() {
+      return dequeueCount;
+    }
+
+    public long getEvictedCount() {
+      return evictedCount;
+    }
+
+    public long getFullCount() {
+      return fullCount;
+    }
+
+    public long getEmptyCount() {
+      return emptyCount;
+    }
+
+    public int getHighWaterMark() {
+      return highWaterMark;
+    }
+
+    /**
+     * @return Copy of the occupancy histogram
+     */
+    public long[] getOccupancyHistogram() {
+      return occupancyHistogram.clone();
+    }
+
+    /**
+     * @return System.nanoTime when the snapshot was taken
+     */
+    public long getTimestampNanos() {
+      return timestampNanos;
+    }
+
+    /**
+     * Calculate the dequeue rate between an earlier snapshot and this one.
+     *
+     * @param earlier Snapshot taken before this one
+     * @return Removed elements per second
+     */
+    public double getDequeueRate(Snapshot earlier) {
+      long nanos = timestampNanos - earlier.timestampNanos;
+      return nanos <= 0 ? 0 : (dequeueCount - earlier.dequeueCount) * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+      return "enqueued=" + enqueueCount + ", dequeued=" + dequeueCount + ", evicted=" + evictedCount +
+          ", full=" + fullCount + ", empty=" + emptyCount + ", highWaterMark=" + highWaterMark;
+    }
+  }
+
+  private long enqueueCount;
+  private long dequeueCount;
+  private long evictedCount;
+  private long fullCount;
+  private long emptyCount;
+  private int highWaterMark;
+  private final long[] occupancyHistogram = new long[BUCKETS];
+  private ObjectName objectName;
+
+  /**
+   * @return Copy of the current counters
+   */
+  public Snapshot snapshot() {
+    return new Snapshot(this);
+  }
+
+  @Override
+  public long getEnqueueCount() {
+    return enqueueCount;
+  }
+
+  @Override
+  public long getDequeueCount() {
+    return dequeueCount;
+  }
+
+  @Override
+  public long getEvictedCount() {
+    return evictedCount;
+  }
+
+  @Override
+  public long getFullCount() {
+    return fullCount;
+  }
+
+  @Override
+  public long getEmptyCount() {
+    return emptyCount;
+  }
+
+  @Override
+  public int getHighWaterMark() {
+    return highWaterMark;
+  }
+
+  @Override
+  public long[] getOccupancyHistogram() {
+    return occupancyHistogram.clone();
+  }
+
+  @Override
+  public void reset() {
+    enqueueCount = 0;
+    dequeueCount = 0;
+    evictedCount = 0;
+    fullCount = 0;
+    emptyCount = 0;
+    highWaterMark = 0;
+    Arrays.fill(occupancyHistogram, 0);
+  }
+
+  /**
+   * @param bucket Index in the occupancy histogram
+   * @return Smallest number of elements counted in bucket
+   */
+  public static int getBucketLowerBound(int bucket) {
+    return bucket == 0 ? 0 : 1 << (bucket - 1);
+  }
+
+  /**
+   * Register this instance in the platform MBean server as se.marell.dcommons:type=QueueMetrics,name=name.
+   *
+   * @param name Name of the queue
+   * @throws JMException if registration fails, for example if the name is already registered
+   */
+  public synchronized void register(String name) throws JMException {
+    ObjectName on = new ObjectName("se.marell.dcommons:type=QueueMetrics,name=" + ObjectName.quote(name));
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+    objectName = on;
+  }
+
+  /**
+   * Unregister this instance from the platform MBean server if it is registered.
+   *
+   * @throws JMException if unregistration fails
+   */
+  public synchronized void unregister() throws JMException {
+    if (objectName != null) {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+      objectName = null;
+    }
+  }
+
+  void enqueued(int n, int size) {
+    enqueueCount += n;
+    sample(size);
+  }
+
+  void dequeued(int n, int size) {
+    dequeueCount += n;
+    sample(size);
+  }
+
+  void enqueued(int n, int requested, int size) {
+    if (n > 0) {
+      enqueued(n, size);
+    }
+    if (n < requested) {
+      ++fullCount;
+    }
+  }
+
+  void dequeued(int n, int requested, int size) {
+    if (n > 0) {
+      dequeued(n, size);
+    } else if (requested > 0) {
+      ++emptyCount;
+    }
+  }
+
+  void evicted(int n) {
+    evictedCount += n;
+  }
+
+  // Elements that are inserted and evicted by the same operation, so the size does not change
+  void overwritten(int n) {
+    enqueueCount += n;
+    evictedCount += n;
+  }
+
+  void rejectedFull() {
+    ++fullCount;
+  }
+
+  void rejectedEmpty() {
+    ++emptyCount;
+  }
+
+  private void sample(int size) {
+    if (size > highWaterMark) {
+      highWaterMark = size;
+    }
+    ++occupancyHistogram[32 - Integer.numberOfLeadingZeros(size)];
+  }
+}
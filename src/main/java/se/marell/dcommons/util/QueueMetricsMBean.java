@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+/**
+ * JMX management interface of QueueMetrics.
+ */
+public interface QueueMetricsMBean {
+  /**
+   * @return Number of inserted elements
+   */
+  long getEnqueueCount();
+
+  /**
+   * @return Number of removed elements, not including evicted elements
+   */
+  long getDequeueCount();
+
+  /**
+   * @return Number of elements evicted in overwrite oldest mode. Together with the enqueue and dequeue counts it
+   * gives the queue size: enqueued - dequeued - evicted.
+   */
+  long getEvictedCount();
+
+  /**
+   * @return Number of insert operations refused, fully or partly, because the queue was full
+   */
+  long getFullCount();
+
+  /**
+   * @return Number of remove operations refused because the queue was empty
+   */
+  long getEmptyCount();
+
+  /**
+   * @return Max number of elements seen in the queue
+   */
+  int getHighWaterMark();
+
+  /**
+   * @return Number of operations per occupancy bucket, see QueueMetrics.getBucketLowerBound
+   */
+  long[] getOccupancyHistogram();
+
+  /**
+   * Set all counters to zero.
+   */
+  void reset();
+}
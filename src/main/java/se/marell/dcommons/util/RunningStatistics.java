@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+/**
+ * <p>
+ * Count, mean, variance, min and max of a stream of values in constant memory. The mean and variance are updated
+ * with Welford's algorithm, which unlike a sum of squares does not lose precision when the variance is small
+ * compared to the mean.
+ * </p>
+ * <p>
+ * Two RunningStatistics are combined with merge, giving the same result as if all values had been added to one of
+ * them. This allows each thread or channel to keep statistics of its own and a reader to merge them. The class is
+ * not thread safe, the statistics must not be modified while they are merged into another one.
+ * </p>
+ * <p>
+ * All values are NaN until the first value has been added.
+ * </p>
+ */
+public class RunningStatistics {
+  private long count;
+  private double mean;
+  private double m2;  // Sum of squared differences from the mean
+  private double min;
+  private double max;
+
+  public RunningStatistics() {
+    clear();
+  }
+
+  RunningStatistics(long count, double mean, double m2, double min, double max) {
+    this.count = count;
+    this.mean = mean;
+    this.m2 = m2;
+    this.min = min;
+    this.max = max;
+  }
+
+  /**
+   * Add a value.
+   *
+   * @param value Value
+   */
+  public void add(double value) {
+    ++count;
+    double delta = value - mean;
+    mean += delta / count;
+    m2 += delta * (value - mean);
+    if (value < min) {
+      min = value;
+    }
+    if (value > max) {
+      max = value;
+    }
+  }
+
+  /**
+   * Add all values of another RunningStatistics to this one.
+   *
+   * @param other Statistics to merge, not modified
+   */
+  public void merge(RunningStatistics other) {
+    if (other.count == 0) {
+      return;
+    }
+    if (count == 0) {
+      count = other.count;
+      mean = other.mean;
+      m2 = other.m2;
+      min = other.min;
+      max = other.max;
+      return;
+    }
+    long n = count + other.count;
+    double delta = other.mean - mean;
+    mean += delta * other.count / n;
+    m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+    count = n;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  /**
+   * Remove all values.
+   */
+  public void clear() {
+    count = 0;
+    mean = 0;
+    m2 = 0;
+    min = Double.POSITIVE_INFINITY;
+    max = Double.NEGATIVE_INFINITY;
+  }
+
+  /**
+   * @return Number of values
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return Mean of the values
+   */
+  public double getMean() {
+    return count == 0 ? Double.NaN : mean;
+  }
+
+  /**
+   * @return Population variance of the values
+   */
+  public double getVariance() {
+    return count == 0 ? Double.NaN : Math.max(0, m2 / count);
+  }
+
+  /**
+   * @return Population standard deviation of the values
+   */
+  public double getStandardDeviation() {
+    return Math.sqrt(getVariance());
+  }
+
+  /**
+   * @return Smallest value
+   */
+  public double getMin() {
+    return count == 0 ? Double.NaN : min;
+  }
+
+  /**
+   * @return Largest value
+   */
+  public double getMax() {
+    return count == 0 ? Double.NaN : max;
+  }
+
+  @Override
+  public String toString() {
+    return "RunningStatistics{count=" + count + ", mean=" + getMean() + ", stddev=" + getStandardDeviation() +
+        ", min=" + getMin() + ", max=" + getMax() + "}";
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+/**
+ * Waits by spinning a number of times and then yielding the processor to other threads between each retry.
+ * Gives low latency while letting other threads run when there are more threads than cores.
+ */
+public class SpinYieldWaitStrategy implements WaitStrategy {
+  private final int spins;
+
+  public SpinYieldWaitStrategy() {
+    this(100);
+  }
+
+  /**
+   * @param spins Number of retries before starting to yield
+   */
+  public SpinYieldWaitStrategy(int spins) {
+    this.spins = spins;
+  }
+
+  @Override
+  public void await(Object monitor, long timeoutNanos) {
+  }
+
+  @Override
+  public void idle(int idleCount) {
+    if (idleCount >= spins) {
+      Thread.yield();
+    }
+  }
+
+  @Override
+  public void signal(Object monitor) {
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+
+/**
+ * <p>
+ * A lock-free variant of QueueBuffer for exactly one producer thread and exactly one consumer thread.
+ * Elements are inserted at the end of the queue (putLast operation) by the producer and retrieved from the
+ * front of the queue (getFirst operation) by the consumer.
+ * </p>
+ * <p>
+ * Like QueueBuffer the queue is bounded and does not allocate any objects when elements are inserted or retrieved.
+ * Instead of a monitor the producer and the consumer each own one sequence counter. The counters are padded to avoid
+ * false sharing between the two threads and published with lazySet, which is a cheap store-store barrier instead
+ * of a full volatile write. Each thread caches the last seen value of the other thread's counter and only reads the
+ * shared counter when the cached value says that the queue is full or empty.
+ * </p>
+ * <p>
+ * Null values are allowed to be putLast in the queue.
+ * </p>
+ * <p>
+ * This class is only thread safe when used by one producer and one consumer. Use QueueBuffer if there are more
+ * threads on either side.
+ * </p>
+ */
+public class SpscQueueBuffer<E> {
+  private final int maxQueueSize;
+  private final int mask;
+  private final Object[] queue;
+  // Sequence of the next element to retrieve, written by the consumer
+  private final PaddedAtomicLong head = new PaddedAtomicLong();
+  // Sequence of the next element to insert, written by the producer
+  private final PaddedAtomicLong tail = new PaddedAtomicLong();
+  // Last seen value of tail, only accessed by the consumer
+  private long cachedTail;
+  // Padding against false sharing between the consumer and producer fields
+  private long p1, p2, p3, p4, p5, p6, p7;
+  // Last seen value of head, only accessed by the producer
+  private long cachedHead;
+
+  /**
+   * Create a new SpscQueueBuffer with the specified maximum number of elements.
+   * The backing array is rounded up to the next power of two in order to index it with a bit mask.
+   *
+   * @param maxQueueSize Max number of items in queue. Must be larger than 0 and at most 2^30.
+   */
+  public SpscQueueBuffer(int maxQueueSize) {
+    if (maxQueueSize <= 0 || maxQueueSize > 1 << 30) {
+      throw new IllegalArgumentException("Invalid maxQueueSize:" + maxQueueSize);
+    }
+    this.maxQueueSize = maxQueueSize;
+    this.queue = new Object[roundUpToPowerOfTwo(maxQueueSize)];
+    this.mask = queue.length - 1;
+  }
+
+  /**
+   * @return true if queue is empty
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * @return true if queue is full
+   */
+  public boolean isFull() {
+    return size() >= maxQueueSize;
+  }
+
+  /**
+   * The size is exact when called from the producer or the consumer while the other thread is idle,
+   * otherwise it is a snapshot that may be out of date as soon as it is returned.
+   *
+   * @return number of elements in queue
+   */
+  public int size() {
+    // Read head before tail so that the difference never becomes negative
+    long h = head.get();
+    long t = tail.get();
+    return (int) Math.min(t - h, maxQueueSize);
+  }
+
+  /**
+   * @return number of free elements in queue
+   */
+  public int getFree() {
+    return maxQueueSize - size();
+  }
+
+  /**
+   * @return Max number of elements in SpscQueueBuffer
+   */
+  public int getMaxSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * Look at the object in the first position in this queue without removing it from the queue.
+   * Must only be called by the consumer thread.
+   *
+   * @return Object at first position in queue or null if queue is empty
+   */
+  @SuppressWarnings("unchecked")
+  public E peek() {
+    long h = head.get();
+    if (h >= cachedTail) {
+      cachedTail = tail.get();
+      if (h >= cachedTail) {
+        return null;
+      }
+    }
+    return (E) queue[(int) h & mask];
+  }
+
+  /**
+   * Remove the object in the first position in this queue and return that object as the value of the function.
+   * Must only be called by the consumer thread.
+   *
+   * @return Object at first position in queue or null if queue is empty
+   */
+  @SuppressWarnings("unchecked")
+  public E getFirst() {
+    long h = head.get();
+    if (h >= cachedTail) {
+      cachedTail = tail.get();
+      if (h >= cachedTail) {
+        return null;
+      }
+    }
+    int index = (int) h & mask;
+    Object obj = queue[index];
+    // Release the reference to make the object eligible for garbage collection
+    queue[index] = null;
+    head.lazySet(h + 1);
+    return (E) obj;
+  }
+
+  /**
+   * Put an item at the end of this queue. Must only be called by the producer thread.
+   *
+   * @param obj Object
+   * @return true if the object was inserted, false if the queue is full
+   */
+  public boolean putLast(E obj) {
+    long t = tail.get();
+    if (t - cachedHead >= maxQueueSize) {
+      cachedHead = head.get();
+      if (t - cachedHead >= maxQueueSize) {
+        return false;
+      }
+    }
+    queue[(int) t & mask] = obj;
+    tail.lazySet(t + 1);
+    return true;
+  }
+
+  private static int roundUpToPowerOfTwo(int n) {
+    return n == 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+  }
+}
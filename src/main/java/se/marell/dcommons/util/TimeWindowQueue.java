@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import se.marell.dcommons.time.DefaultTimeSource;
+import se.marell.dcommons.time.TimeSource;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>
+ * A bounded queue keeping the elements inserted during the last windowMillis milliseconds. Each element is stamped
+ * with the time from a TimeSource when it is inserted and expired elements are removed from the front of the queue
+ * whenever the queue is accessed. Since the elements are in time order each element is checked for expiry only
+ * once, which makes expiry amortized O(1) per element.
+ * </p>
+ * <p>
+ * An ExpiryListener may be set to receive the expired elements. The elements removed by one expiry check are
+ * passed in a single call, in order.
+ * </p>
+ * <p>
+ * Null values are allowed to be putLast in the queue. The timestamps are never decreasing, if the time source
+ * steps back the latest timestamp is used until it catches up.
+ * </p>
+ * Usage example:
+ * <pre>
+ * TimeWindowQueue&lt;Event&gt; events = new TimeWindowQueue&lt;Event&gt;(10000, 60000);
+ * events.setExpiryListener(expired -&gt; archive(expired));
+ * ...
+ * events.putLast(event);
+ * ...
+ * for (Event e : events) {
+ *   // Only events from the last 60 seconds
+ * }
+ * </pre>
+ */
+public class TimeWindowQueue<E> implements Iterable<E> {
+  /**
+   * Receives the elements removed from the queue because they are older than the window.
+   *
+   * @param <E> Queue element type
+   */
+  public interface ExpiryListener<E> {
+    /**
+     * Called with the lock of the queue held.
+     *
+     * @param expired Expired elements, oldest first. The list is reused and must not be kept after the call.
+     */
+    void expired(List<E> expired);
+  }
+
+  private final Object[] queue;
+  private final long[] timestamps;
+  private final long windowMillis;
+  private final TimeSource timeSource;
+  private int firstElement = 0;
+  private int lastElement = 0;
+  private int nofElements = 0;
+  private long lastTimestamp = Long.MIN_VALUE;
+  private ExpiryListener<E> expiryListener;
+  private final List<E> expired = new ArrayList<E>();
+
+  /**
+   * Create a new TimeWindowQueue using the system time.
+   *
+   * @param maxQueueSize Max number of items in queue. Must be larger than 0.
+   * @param windowMillis Max age in milliseconds of the elements in the queue
+   */
+  public TimeWindowQueue(int maxQueueSize, long windowMillis) {
+    this(maxQueueSize, windowMillis, new DefaultTimeSource());
+  }
+
+  /**
+   * Create a new TimeWindowQueue.
+   *
+   * @param maxQueueSize Max number of items in queue. Must be larger than 0.
+   * @param windowMillis Max age in milliseconds of the elements in the queue
+   * @param timeSource   Source of the timestamps
+   */
+  public TimeWindowQueue(int maxQueueSize, long windowMillis, TimeSource timeSource) {
+    if (maxQueueSize <= 0) {
+      throw new IllegalArgumentException("Invalid maxQueueSize:" + maxQueueSize);
+    }
+    if (windowMillis <= 0) {
+      throw new IllegalArgumentException("Invalid windowMillis:" + windowMillis);
+    }
+    this.queue = new Object[maxQueueSize];
+    this.timestamps = new long[maxQueueSize];
+    this.windowMillis = windowMillis;
+    this.timeSource = timeSource;
+  }
+
+  /**
+   * @param expiryListener Receiver of expired elements or null
+   */
+  public synchronized void setExpiryListener(ExpiryListener<E> expiryListener) {
+    this.expiryListener = expiryListener;
+  }
+
+  /**
+   * @return Max age in milliseconds of the elements in the queue
+   */
+  public long getWindowMillis() {
+    return windowMillis;
+  }
+
+  /**
+   * @return Max number of elements in queue
+   */
+  public int getMaxSize() {
+    return queue.length;
+  }
+
+  /**
+   * @return true if queue has no unexpired elements
+   */
+  public synchronized boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * @return true if queue is full after removing expired elements
+   */
+  public synchronized boolean isFull() {
+    return size() >= queue.length;
+  }
+
+  /**
+   * @return number of unexpired elements in queue
+   */
+  public synchronized int size() {
+    expire();
+    return nofElements;
+  }
+
+  /**
+   * Remove the elements that are older than the window and pass them to the expiry listener.
+   *
+   * @return Number of removed elements
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized int expire() {
+    long limit = timeSource.currentTimeMillis() - windowMillis;
+    int n = 0;
+    while (n < nofElements && timestamps[firstElement] <= limit) {
+      if (expiryListener != null) {
+        expired.add((E) queue[firstElement]);
+      }
+      queue[firstElement] = null;
+      firstElement = incrementIndex(firstElement);
+      ++n;
+    }
+    nofElements -= n;
+    if (!expired.isEmpty()) {
+      try {
+        expiryListener.expired(expired);
+      } finally {
+        expired.clear();
+      }
+    }
+    return n;
+  }
+
+  /**
+   * Put an item at the end of this queue, stamped with the current time.
+   *
+   * @param obj Object
+   * @throws IllegalStateException if the queue is full of unexpired elements
+   */
+  public synchronized void putLast(E obj) {
+    if (!offer(obj)) {
+      throw new IllegalStateException("Queue is full");
+    }
+  }
+
+  /**
+   * Put an item at the end of this queue, stamped with the current time, if there is room for it.
+   *
+   * @param obj Object
+   * @return true if the object was inserted, false if the queue is full of unexpired elements
+   */
+  public synchronized boolean offer(E obj) {
+    if (nofElements >= queue.length && expire() == 0) {
+      return false;
+    }
+    lastTimestamp = Math.max(lastTimestamp, timeSource.currentTimeMillis());
+    queue[lastElement] = obj;
+    timestamps[lastElement] = lastTimestamp;
+    lastElement = incrementIndex(lastElement);
+    nofElements++;
+    return true;
+  }
+
+  /**
+   * Look at the oldest unexpired element without removing it from the queue.
+   *
+   * @return Object at first position in queue or null if queue is empty
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized E peek() {
+    expire();
+    return nofElements == 0 ? null : (E) queue[firstElement];
+  }
+
+  /**
+   * Remove the oldest unexpired element and return it.
+   *
+   * @return Object at first position in queue or null if queue is empty
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized E getFirst() {
+    expire();
+    if (nofElements == 0) {
+      return null;
+    }
+    Object obj = queue[firstElement];
+    queue[firstElement] = null;
+    firstElement = incrementIndex(firstElement);
+    nofElements--;
+    return (E) obj;
+  }
+
+  /**
+   * @return Timestamp of the oldest unexpired element or Long.MIN_VALUE if queue is empty
+   */
+  public synchronized long getFirstTimestamp() {
+    expire();
+    return nofElements == 0 ? Long.MIN_VALUE : timestamps[firstElement];
+  }
+
+  /**
+   * Remove the expired elements and iterate the rest in order, from the oldest to the newest.
+   * The iterator is not thread safe and must not be used while the queue is modified.
+   *
+   * @return Iterator for iterating the unexpired elements
+   */
+  public Iterator<E> iterator() {
+    expire();
+    return new Iterator<E>() {
+      int index = firstElement;
+      int remaining = nofElements;
+
+      public boolean hasNext() {
+        return remaining > 0;
+      }
+
+      @SuppressWarnings("unchecked")
+      public E next() {
+        if (remaining <= 0) {
+          throw new NoSuchElementException();
+        }
+        Object obj = queue[index];
+        index = incrementIndex(index);
+        --remaining;
+        return (E) obj;
+      }
+
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  private int incrementIndex(int index) {
+    return index >= queue.length - 1 ? 0 : index + 1;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+/**
+ * <p>
+ * Decides how a thread waits when it cannot proceed, for example a consumer taking an element from an empty
+ * QueueBuffer. The choice is a trade-off between latency and CPU usage: spinning strategies react within nanoseconds
+ * but keep a core busy, blocking strategies release the core but have to be woken up by the operating system.
+ * </p>
+ * <p>
+ * A waiting thread first calls await while holding the lock of the monitor guarding the state it waits for. A
+ * blocking strategy waits on the monitor, which releases the lock while waiting. A spinning strategy returns
+ * immediately, and once the caller has released the lock it calls idle where the strategy backs off. After that the
+ * caller checks the state again.
+ * </p>
+ */
+public interface WaitStrategy {
+  /**
+   * Called while holding the lock of monitor after the caller has found that it cannot proceed.
+   *
+   * @param monitor      Object whose lock guards the state
+   * @param timeoutNanos Max time to wait, Long.MAX_VALUE to wait without timeout
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  void await(Object monitor, long timeoutNanos) throws InterruptedException;
+
+  /**
+   * Called without holding any lock after await has returned.
+   *
+   * @param idleCount Number of consecutive unsuccessful attempts made by the caller so far, starting at 0
+   */
+  void idle(int idleCount);
+
+  /**
+   * Called while holding the lock of monitor after the state guarded by it has changed.
+   *
+   * @param monitor Object whose lock guards the state
+   */
+  void signal(Object monitor);
+}
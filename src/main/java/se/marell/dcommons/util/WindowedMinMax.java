@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+/**
+ * <p>
+ * Min and max of the last length added values. Each of min and max is kept in a monotonic deque of the values that
+ * can still become the min or the max before they leave the window. A new value removes the values in the deque it
+ * makes obsolete, so adding a value costs O(1) amortized and getMin and getMax cost O(1).
+ * </p>
+ * <p>
+ * All memory is allocated when the object is created. The class is not thread safe. Windows of different threads
+ * are combined by taking the min of getMin and the max of getMax.
+ * </p>
+ */
+public class WindowedMinMax {
+  private final double[] window;  // Last length added values, value number n at index n % length
+  private final long[] minDeque;  // Numbers of the values with increasing values
+  private final long[] maxDeque;  // Numbers of the values with decreasing values
+  private int minHead;
+  private int minSize;
+  private int maxHead;
+  private int maxSize;
+  private long added;             // Number of added values
+
+  /**
+   * @param length Number of values in the window, larger than 0
+   */
+  public WindowedMinMax(int length) {
+    if (length <= 0) {
+      throw new IllegalArgumentException("Invalid length:" + length);
+    }
+    window = new double[length];
+    minDeque = new long[length];
+    maxDeque = new long[length];
+  }
+
+  /**
+   * Add a value, the oldest value leaves the window if it is full.
+   *
+   * @param value Value
+   */
+  public void add(double value) {
+    final int length = window.length;
+    long n = added++;
+    // Remove the value leaving the window before its slot is overwritten
+    if (minSize > 0 && minDeque[minHead] <= n - length) {
+      minHead = next(minHead);
+      --minSize;
+    }
+    if (maxSize > 0 && maxDeque[maxHead] <= n - length) {
+      maxHead = next(maxHead);
+      --maxSize;
+    }
+    while (minSize > 0 && window[slot(minDeque[(minHead + minSize - 1) % length])] >= value) {
+      --minSize;
+    }
+    while (maxSize > 0 && window[slot(maxDeque[(maxHead + maxSize - 1) % length])] <= value) {
+      --maxSize;
+    }
+    window[slot(n)] = value;
+    minDeque[(minHead + minSize++) % length] = n;
+    maxDeque[(maxHead + maxSize++) % length] = n;
+  }
+
+  /**
+   * Remove all values.
+   */
+  public void clear() {
+    minHead = minSize = maxHead = maxSize = 0;
+    added = 0;
+  }
+
+  /**
+   * @return Number of values in the window
+   */
+  public int size() {
+    return (int) Math.min(added, window.length);
+  }
+
+  /**
+   * @return Smallest value in the window or NaN if no value has been added
+   */
+  public double getMin() {
+    return minSize == 0 ? Double.NaN : window[slot(minDeque[minHead])];
+  }
+
+  /**
+   * @return Largest value in the window or NaN if no value has been added
+   */
+  public double getMax() {
+    return maxSize == 0 ? Double.NaN : window[slot(maxDeque[maxHead])];
+  }
+
+  private int slot(long n) {
+    return (int) (n % window.length);
+  }
+
+  private int next(int i) {
+    return i + 1 == window.length ? 0 : i + 1;
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+/**
+ * <p>
+ * Count, mean, variance, min and max of the last length added values. When the window is full a new value replaces
+ * the oldest one in the Welford mean and variance in O(1). The mean and variance are recalculated from the window
+ * once per round to keep rounding errors from accumulating. The min and max are kept by a WindowedMinMax.
+ * </p>
+ * <p>
+ * All memory is allocated when the object is created. The class is not thread safe. Statistics of several threads
+ * or channels are combined by merging their snapshots.
+ * </p>
+ * Usage example:
+ * <pre>
+ * WindowedStatistics stats = new WindowedStatistics(1000);
+ * ...
+ * stats.add(level);
+ * ...
+ * RunningStatistics all = new RunningStatistics();
+ * for (WindowedStatistics s : channelStatistics) {
+ *   all.merge(s.snapshot());
+ * }
+ * </pre>
+ */
+public class WindowedStatistics {
+  private final double[] window;   // Last length added values
+  private final WindowedMinMax minMax;
+  private int index;               // Position of the oldest value in window when full
+  private int count;               // Number of values in window
+  private double mean;
+  private double m2;               // Sum of squared differences from the mean
+
+  /**
+   * @param length Number of values in the window, larger than 0
+   */
+  public WindowedStatistics(int length) {
+    if (length <= 0) {
+      throw new IllegalArgumentException("Invalid length:" + length);
+    }
+    window = new double[length];
+    minMax = new WindowedMinMax(length);
+  }
+
+  /**
+   * Add a value, the oldest value leaves the window if it is full.
+   *
+   * @param value Value
+   */
+  public void add(double value) {
+    minMax.add(value);
+    if (count < window.length) {
+      ++count;
+      double delta = value - mean;
+      mean += delta / count;
+      m2 += delta * (value - mean);
+    } else {
+      double old = window[index];
+      double delta = value - old;
+      double newMean = mean + delta / count;
+      m2 += delta * (value - newMean + old - mean);
+      mean = newMean;
+    }
+    window[index] = value;
+    if (++index == window.length) {
+      index = 0;
+      recalculate();
+    }
+  }
+
+  /**
+   * Remove all values.
+   */
+  public void clear() {
+    minMax.clear();
+    index = 0;
+    count = 0;
+    mean = 0;
+    m2 = 0;
+  }
+
+  /**
+   * @return Number of values in the window
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * @return Mean of the values in the window
+   */
+  public double getMean() {
+    return count == 0 ? Double.NaN : mean;
+  }
+
+  /**
+   * @return Population variance of the values in the window
+   */
+  public double getVariance() {
+    return count == 0 ? Double.NaN : Math.max(0, m2 / count);
+  }
+
+  /**
+   * @return Population standard deviation of the values in the window
+   */
+  public double getStandardDeviation() {
+    return Math.sqrt(getVariance());
+  }
+
+  /**
+   * @return Smallest value in the window
+   */
+  public double getMin() {
+    return minMax.getMin();
+  }
+
+  /**
+   * @return Largest value in the window
+   */
+  public double getMax() {
+    return minMax.getMax();
+  }
+
+  /**
+   * @return The statistics of the values in the window, to be merged with the statistics of other windows
+   */
+  public RunningStatistics snapshot() {
+    return count == 0 ? new RunningStatistics() :
+        new RunningStatistics(count, mean, m2, minMax.getMin(), minMax.getMax());
+  }
+
+  // Two-pass mean and variance of a full window
+  private void recalculate() {
+    double sum = 0;
+    for (double v : window) {
+      sum += v;
+    }
+    mean = sum / window.length;
+    m2 = 0;
+    for (double v : window) {
+      m2 += (v - mean) * (v - mean);
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class BroadcastRingTest {
+  private static class Sample {
+    long value;
+    long doubled;
+  }
+
+  private static BroadcastRing<Sample> createRing(int size) {
+    return new BroadcastRing<Sample>(new Sample[size], Sample::new);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSize() {
+    createRing(6);
+  }
+
+  @Test
+  public void testBroadcast() {
+    BroadcastRing<Sample> ring = createRing(4);
+    BroadcastRing<Sample>.Cursor a = ring.newCursor();
+    BroadcastRing<Sample>.Cursor b = ring.newCursor();
+    assertThat(a.peek(), is(nullValue()));
+    for (int i = 0; i < 4; ++i) {
+      ring.claim().value = i;
+      ring.publish();
+    }
+    // Full until both cursors have released the first element
+    assertThat(ring.claim(), is(nullValue()));
+    assertThat(a.peek().value, is(0L));
+    a.release();
+    assertThat(ring.claim(), is(nullValue()));
+    assertThat(b.available(), is(4));
+    assertThat(b.peek().value, is(0L));
+    b.release();
+    ring.claim().value = 4;
+    ring.publish();
+    for (int i = 1; i <= 4; ++i) {
+      assertThat(a.peek().value, is((long) i));
+      a.release();
+    }
+    assertThat(a.peek(), is(nullValue()));
+    final List<Long> values = new ArrayList<Long>();
+    assertThat(b.process(s -> values.add(s.value), 10), is(4));
+    assertThat(values.toString(), is("[1, 2, 3, 4]"));
+    assertThat(b.getSequence(), is(4L));
+  }
+
+  @Test
+  public void testDependency() {
+    BroadcastRing<Sample> ring = createRing(8);
+    BroadcastRing<Sample>.Cursor first = ring.newCursor();
+    BroadcastRing<Sample>.Cursor second = ring.newCursor(first);
+    final long[] next = {1};
+    assertThat(ring.publishAll(s -> s.value = next[0]++, 3), is(3));
+    assertThat(second.peek(), is(nullValue()));
+    assertThat(first.process(s -> s.doubled = 2 * s.value, 2), is(2));
+    assertThat(second.available(), is(2));
+    assertThat(second.peek().doubled, is(2L));
+    second.release();
+    assertThat(second.peek().doubled, is(4L));
+    second.release();
+    assertThat(second.peek(), is(nullValue()));
+  }
+
+  @Test
+  public void testRemoveCursor() {
+    BroadcastRing<Sample> ring = createRing(2);
+    BroadcastRing<Sample>.Cursor slow = ring.newCursor();
+    assertThat(ring.publishAll(s -> s.value = 1, 5), is(2));
+    assertThat(ring.claim(), is(nullValue()));
+    ring.removeCursor(slow);
+    assertThat(ring.publishAll(s -> s.value = 2, 5), is(2));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testReleaseEmpty() {
+    createRing(2).newCursor().release();
+  }
+
+  @Test(timeout = 60000)
+  public void testPipeline() throws Exception {
+    final int n = 200000;
+    final BroadcastRing<Sample> ring = createRing(64);
+    final BroadcastRing<Sample>.Cursor persist = ring.newCursor();
+    final BroadcastRing<Sample>.Cursor aggregate = ring.newCursor();
+    final BroadcastRing<Sample>.Cursor alert = ring.newCursor(persist);
+    final AtomicReference<String> error = new AtomicReference<String>();
+    final long[] sums = new long[2];
+    List<Thread> threads = new ArrayList<Thread>();
+    threads.add(new Thread(() -> {
+      long expected = 0;
+      while (expected < n) {
+        Sample s = persist.peek();
+        if (s == null) {
+          Thread.yield();
+          continue;
+        }
+        if (s.value != expected) {
+          error.set("persist expected " + expected + " but got " + s.value);
+        }
+        s.doubled = 2 * s.value;
+        persist.release();
+        ++expected;
+      }
+    }));
+    threads.add(new Thread(() -> {
+      int count = 0;
+      while (count < n) {
+        int c = aggregate.process(s -> sums[0] += s.value, 16);
+        if (c == 0) {
+          Thread.yield();
+        }
+        count += c;
+      }
+    }));
+    threads.add(new Thread(() -> {
+      int count = 0;
+      while (count < n) {
+        int c = alert.process(s -> sums[1] += s.doubled, 16);
+        if (c == 0) {
+          Thread.yield();
+        }
+        count += c;
+      }
+    }));
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (int i = 0; i < n; ) {
+      Sample s = ring.claim();
+      if (s == null) {
+        Thread.yield();
+      } else {
+        s.value = i++;
+        ring.publish();
+      }
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    assertThat(error.get(), is(nullValue()));
+    long expectedSum = (long) n * (n - 1) / 2;
+    assertThat(sums[0], is(expectedSum));
+    assertThat(sums[1], is(2 * expectedSum));
+  }
+}
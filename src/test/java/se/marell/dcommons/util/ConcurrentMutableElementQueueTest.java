@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ConcurrentMutableElementQueueTest {
+  private static class Sample {
+    int producer;
+    int value;
+  }
+
+  private static ConcurrentMutableElementQueue<Sample> createQueue(int size) {
+    return new ConcurrentMutableElementQueue<Sample>(new Sample[size], Sample::new);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSize() {
+    createQueue(3);
+  }
+
+  @Test
+  public void testClaimAndPublish() {
+    ConcurrentMutableElementQueue<Sample> q = createQueue(2);
+    assertThat(q.peek(), is(nullValue()));
+    long s1 = q.claim();
+    long s2 = q.claim();
+    assertThat(s1, is(0L));
+    assertThat(s2, is(1L));
+    assertThat(q.claim(), is(-1L));
+    assertThat(q.isFull(), is(true));
+    q.slot(s2).value = 2;
+    q.publish(s2);
+    // The first claimed element is not yet published
+    assertThat(q.peek(), is(nullValue()));
+    q.slot(s1).value = 1;
+    q.publish(s1);
+    assertThat(q.peek().value, is(1));
+    q.release();
+    assertThat(q.claim(), is(2L));
+    assertThat(q.peek().value, is(2));
+    q.release();
+    assertThat(q.peek(), is(nullValue()));
+    assertThat(q.size(), is(1));
+  }
+
+  @Test
+  public void testDrainTo() {
+    ConcurrentMutableElementQueue<Sample> q = createQueue(4);
+    for (int i = 0; i < 3; ++i) {
+      long seq = q.claim();
+      q.slot(seq).value = i;
+      if (i != 1) {
+        q.publish(seq);
+      }
+    }
+    final List<Integer> values = new ArrayList<Integer>();
+    assertThat(q.drainTo(s -> values.add(s.value), 10), is(1));
+    q.publish(1);
+    assertThat(q.drainTo(s -> values.add(s.value), 10), is(2));
+    assertThat(values.toString(), is("[0, 1, 2]"));
+    assertThat(q.isEmpty(), is(true));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testReleaseUnpublished() {
+    ConcurrentMutableElementQueue<Sample> q = createQueue(2);
+    q.claim();
+    q.release();
+  }
+
+  @Test(timeout = 60000)
+  public void testProducers() throws Exception {
+    final int producers = 4;
+    final int perProducer = 100000;
+    final ConcurrentMutableElementQueue<Sample> q = createQueue(64);
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int p = 0; p < producers; ++p) {
+      final int producer = p;
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < perProducer; ) {
+          long seq = q.claim();
+          if (seq < 0) {
+            Thread.yield();
+          } else {
+            Sample s = q.slot(seq);
+            s.producer = producer;
+            s.value = i++;
+            q.publish(seq);
+          }
+        }
+      }));
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    // Elements from each producer must arrive complete and in order
+    int[] expected = new int[producers];
+    for (int n = 0; n < producers * perProducer; ) {
+      Sample s = q.peek();
+      if (s == null) {
+        Thread.yield();
+        continue;
+      }
+      assertThat(s.value, is(expected[s.producer]++));
+      q.release();
+      ++n;
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    assertThat(q.isEmpty(), is(true));
+  }
+}
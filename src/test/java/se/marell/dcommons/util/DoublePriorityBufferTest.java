@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DoublePriorityBufferTest {
+  @Test
+  public void testTopK() {
+    Random random = new Random(17);
+    DoublePriorityBuffer<String> b = new DoublePriorityBuffer<String>(5);
+    b.setEvictLowest(true);
+    double[] all = new double[500];
+    for (int i = 0; i < all.length; ++i) {
+      all[i] = random.nextDouble();
+      b.offer(all[i], "v" + all[i]);
+    }
+    Arrays.sort(all);
+    double[] keys = new double[5];
+    String[] values = new String[5];
+    assertThat(b.drainTo(keys, values, 0), is(5));
+    for (int i = 0; i < 5; ++i) {
+      assertThat(keys[i], is(all[all.length - 1 - i]));
+      assertThat(values[i], is("v" + keys[i]));
+    }
+  }
+
+  @Test
+  public void testLowest() {
+    DoublePriorityBuffer<String> b = new DoublePriorityBuffer<String>(3, 2);
+    b.offer(2.0, "b");
+    b.offer(1.0, null);
+    b.offer(3.0, "c");
+    assertThat(b.offer(4.0, "d"), is(false));
+    assertThat(b.peekLowestKey(), is(1.0));
+    assertThat(b.pollLowest() == null, is(true));
+    assertThat(b.peekLowestKey(), is(2.0));
+    assertThat(b.pollLowest(), is("b"));
+    assertThat(b.size(), is(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNaNKey() {
+    DoublePriorityBuffer<String> b = new DoublePriorityBuffer<String>(3);
+    b.offer(Double.NaN, "a");
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class DoubleQueueBufferTest {
+  @Test
+  public void testPutLastAndGetFirst() {
+    DoubleQueueBuffer q = new DoubleQueueBuffer(2);
+    q.putLast(1.5);
+    assertThat(q.offer(Double.NaN), is(true));
+    assertThat(q.offer(3), is(false));
+    assertThat(q.search(Double.NaN), is(1));
+    assertThat(q.search(7), is(-1));
+    assertThat(q.peek(), is(1.5));
+    assertThat(q.getFirst(), is(1.5));
+    assertThat(Double.isNaN(q.getFirst()), is(true));
+    assertThat(q.isEmpty(), is(true));
+    try {
+      q.getFirst();
+      fail();
+    } catch (NoSuchElementException ignore) {
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testPutLastFull() {
+    DoubleQueueBuffer q = new DoubleQueueBuffer(1);
+    q.putLast(1);
+    q.putLast(2);
+  }
+
+  @Test
+  public void testBatch() {
+    DoubleQueueBuffer q = new DoubleQueueBuffer(4);
+    q.putLast(0);
+    q.putLast(1);
+    q.getFirst();
+    q.getFirst();
+    assertThat(q.putAll(new double[]{2, 3, 4, 5, 6}, 0, 5), is(4));
+    double[] dst = new double[3];
+    assertThat(q.drainTo(dst, 0, 3), is(3));
+    assertThat(dst, is(new double[]{2, 3, 4}));
+    assertThat(q.putAll(new double[]{6, 7}, 0, 2), is(2));
+    final double[] sum = {0};
+    assertThat(q.drainTo(v -> sum[0] += v, 10), is(3));
+    assertThat(sum[0], is(18.0));
+    assertThat(q.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testGrow() {
+    DoubleQueueBuffer q = new DoubleQueueBuffer(2);
+    q.setGrowLimit(5);
+    q.putLast(0);
+    q.getFirst();
+    q.putLast(1);
+    q.putLast(2);
+    assertThat(q.offer(3), is(true));
+    assertThat(q.getMaxSize(), is(4));
+    assertThat(q.putAll(new double[]{4, 5, 6}, 0, 3), is(2));
+    assertThat(q.getMaxSize(), is(5));
+    double[] dst = new double[5];
+    assertThat(q.drainTo(dst, 0, 5), is(5));
+    assertThat(dst, is(new double[]{1, 2, 3, 4, 5}));
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FilterBankTest {
+  @Test
+  public void testSameAsFilterSIIR() {
+    int[] lengths = {1, 2, 3, 7, 10, 100, 2, 5, 9};
+    FilterBank bank = new FilterBank(lengths);
+    FilterSIIR[] filters = new FilterSIIR[lengths.length];
+    for (int c = 0; c < lengths.length; ++c) {
+      filters[c] = new FilterSIIR(0, lengths[c]);
+    }
+    Random random = new Random(17);
+    double[] levels = new double[lengths.length];
+    for (int i = 0; i < 1000; ++i) {
+      for (int c = 0; c < levels.length; ++c) {
+        levels[c] = random.nextGaussian() * 100;
+        filters[c].in(levels[c]);
+      }
+      bank.in(levels);
+      for (int c = 0; c < levels.length; ++c) {
+        assertThat(Double.doubleToRawLongBits(bank.out(c)), is(Double.doubleToRawLongBits(filters[c].out())));
+        assertThat(bank.raw(c), is(levels[c]));
+      }
+    }
+  }
+
+  @Test
+  public void testSingleChannel() {
+    FilterBank bank = new FilterBank(3, 2);
+    bank.set(4);
+    bank.setLength(1, 4);
+    bank.in(1, 8);
+    bank.in(2, 8);
+    double[] out = new double[3];
+    bank.out(out);
+    assertThat(out[0], is(4.0));
+    assertThat(out[1], is(5.0));
+    assertThat(out[2], is(6.0));
+    assertThat(bank.getLength(1), is(4));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidLength() {
+    new FilterBank(new int[]{1, 0});
+  }
+}
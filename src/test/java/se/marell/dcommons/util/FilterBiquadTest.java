@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class FilterBiquadTest {
+  private static final double SAMPLE_RATE = 1000;
+
+  // Output amplitude of a unit sine wave after the filter has settled, from the mean square over whole periods
+  private static double amplitude(Filter f, double frequency) {
+    double sum = 0;
+    for (int i = 0; i < 4000; ++i) {
+      double level = f.inout(Math.sin(2 * Math.PI * frequency * i / SAMPLE_RATE));
+      if (i >= 3000) {
+        sum += level * level;
+      }
+    }
+    return Math.sqrt(2 * sum / 1000);
+  }
+
+  @Test
+  public void testLowPass() {
+    for (int order = 1; order <= 5; ++order) {
+      assertEquals(1, amplitude(FilterBiquad.lowPass(order, 100, SAMPLE_RATE), 5), 0.01);
+      assertEquals(Math.sqrt(0.5), amplitude(FilterBiquad.lowPass(order, 100, SAMPLE_RATE), 100), 0.01);
+    }
+    assertThat(amplitude(FilterBiquad.lowPass(4, 100, SAMPLE_RATE), 400) < 0.001, is(true));
+    assertThat(FilterBiquad.lowPass(4, 100, SAMPLE_RATE).getSections(), is(2));
+    assertThat(FilterBiquad.lowPass(5, 100, SAMPLE_RATE).getSections(), is(3));
+  }
+
+  @Test
+  public void testHighPass() {
+    for (int order = 1; order <= 5; ++order) {
+      assertEquals(1, amplitude(FilterBiquad.highPass(order, 100, SAMPLE_RATE), 400), 0.01);
+      assertEquals(Math.sqrt(0.5), amplitude(FilterBiquad.highPass(order, 100, SAMPLE_RATE), 100), 0.01);
+    }
+    assertThat(amplitude(FilterBiquad.highPass(4, 100, SAMPLE_RATE), 10) < 0.001, is(true));
+  }
+
+  @Test
+  public void testBandPass() {
+    FilterBiquad f = FilterBiquad.bandPass(2, 50, 200, SAMPLE_RATE);
+    assertThat(f.getSections(), is(2));
+    assertEquals(1, amplitude(f, 100), 0.1);
+    assertThat(amplitude(FilterBiquad.bandPass(2, 50, 200, SAMPLE_RATE), 2) < 0.01, is(true));
+    assertThat(amplitude(FilterBiquad.bandPass(2, 50, 200, SAMPLE_RATE), 450) < 0.1, is(true));
+  }
+
+  @Test
+  public void testSet() {
+    FilterBiquad f = FilterBiquad.lowPass(3, 100, SAMPLE_RATE);
+    f.set(5);
+    assertEquals(5, f.out(), 1e-12);
+    assertEquals(5, f.inout(5), 1e-12);
+    FilterBiquad hp = FilterBiquad.highPass(2, 100, SAMPLE_RATE);
+    hp.set(5);
+    assertEquals(0, hp.inout(5), 1e-12);
+  }
+
+  @Test
+  public void testProcess() {
+    FilterTest.assertProcessSameAsInout(FilterBiquad.lowPass(5, 100, SAMPLE_RATE),
+        FilterBiquad.lowPass(5, 100, SAMPLE_RATE));
+    FilterTest.assertProcessSameAsInout(FilterBiquad.bandPass(3, 50, 200, SAMPLE_RATE),
+        FilterBiquad.bandPass(3, 50, 200, SAMPLE_RATE));
+  }
+
+  @Test
+  public void testProcessInPlace() {
+    double[] levels = {1, 2, 3, 4};
+    FilterBiquad f = FilterBiquad.lowPass(2, 100, SAMPLE_RATE);
+    f.process(levels, 0, levels.length, levels);
+    assertThat(f.raw(), is(4.0));
+    assertThat(f.out(), is(levels[3]));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidCutoff() {
+    FilterBiquad.lowPass(2, 500, SAMPLE_RATE);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidCoefficients() {
+    new FilterBiquad(new double[4]);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FilterChainTest {
+  private static FilterChain newChain() {
+    return new FilterChain(new FilterHampel(5, 3), new FilterSIIR(0, 4), FilterBiquad.lowPass(2, 100, 1000),
+        new FilterMovingAverage(3));
+  }
+
+  @Test
+  public void testInout() {
+    FilterChain chain = newChain();
+    Filter[] filters = newChain().getFilters();
+    for (int i = 0; i < 100; ++i) {
+      double x = i % 7;
+      assertThat(chain.inout(x), is(filters[3].inout(filters[2].inout(filters[1].inout(filters[0].inout(x))))));
+    }
+    assertThat(chain.raw(), is(99.0 % 7));
+  }
+
+  @Test
+  public void testProcess() {
+    // The levels span several blocks
+    FilterTest.assertProcessSameAsInout(newChain(), newChain());
+  }
+
+  @Test
+  public void testProcessInPlace() {
+    double[] levels = new double[FilterChain.BLOCK_SIZE + 10];
+    double[] expected = new double[levels.length];
+    FilterChain scalar = newChain();
+    for (int i = 0; i < levels.length; ++i) {
+      levels[i] = i;
+      expected[i] = scalar.inout(i);
+    }
+    FilterChain chain = newChain();
+    chain.process(levels, 0, levels.length, levels);
+    for (int i = 0; i < levels.length; ++i) {
+      assertThat(levels[i], is(expected[i]));
+    }
+    assertThat(chain.raw(), is(levels.length - 1.0));
+  }
+
+  @Test
+  public void testSet() {
+    FilterChain chain = new FilterChain(new FilterSIIR(0, 4), new FilterFIR(new double[]{0.5, 0.5}));
+    chain.set(3);
+    assertThat(chain.out(), is(3.0));
+    assertThat(chain.getFilters()[0].out(), is(3.0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoFilters() {
+    new FilterChain();
+  }
+}
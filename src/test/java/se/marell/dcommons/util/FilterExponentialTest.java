@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+import se.marell.dcommons.time.FixedTimeSource;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class FilterExponentialTest {
+  @Test
+  public void testTimeConstant() {
+    FixedTimeSource time = new FixedTimeSource(123456);
+    FilterExponential f = new FilterExponential(0, 100, time);
+    f.in(1);
+    assertThat(f.out(), is(0.0));
+    time.advanceTime(100);
+    assertEquals(1 - Math.exp(-1), f.out(), 1e-12);
+    time.advanceTime(400);
+    assertEquals(1 - Math.exp(-5), f.out(), 1e-12);
+    assertThat(f.raw(), is(1.0));
+  }
+
+  @Test
+  public void testTimestamps() {
+    // Sample times far from the system time
+    FilterExponential f = new FilterExponential(0, 1000);
+    f.in(10, 1000);
+    f.in(10, 2000);
+    f.in(10, 5000);
+    assertEquals(10 * (1 - Math.exp(-9)), f.out(10000), 1e-12);
+  }
+
+  @Test
+  public void testIrregularSamples() {
+    FilterExponential f = new FilterExponential(0, 50);
+    f.in(10, 1000);
+    f.in(20, 1030);
+    f.in(20, 1031);
+    double expected = 10 * (1 - Math.exp(-30 / 50.0));
+    expected = 20 + (expected - 20) * Math.exp(-1 / 50.0);
+    assertEquals(expected, f.out(1031), 1e-12);
+    // Reading in between does not change the result
+    FilterExponential g = new FilterExponential(0, 50);
+    g.in(10, 1000);
+    g.out(1007);
+    g.out(1021);
+    g.in(20, 1030);
+    g.in(20, 1031);
+    assertEquals(f.out(1100), g.out(1100), 1e-12);
+  }
+
+  @Test
+  public void testTimeBackwards() {
+    FilterExponential f = new FilterExponential(0, 10);
+    f.in(1, 20);
+    double level = f.out(30);
+    assertThat(f.out(25), is(level));
+    f.in(2, 25);
+    assertThat(f.out(30), is(level));
+  }
+
+  @Test
+  public void testSet() {
+    FixedTimeSource time = new FixedTimeSource(123456);
+    FilterExponential f = new FilterExponential(0, 10, time);
+    f.in(5);
+    time.advanceTime(1000);
+    f.set(3);
+    assertThat(f.out(), is(3.0));
+    time.advanceTime(1000);
+    assertThat(f.out(), is(3.0));
+    // The first timestamp after set starts the filter
+    FilterExponential g = new FilterExponential(0, 10);
+    g.in(5, 1000);
+    g.out(2000);
+    g.set(3);
+    g.in(5, 1);
+    assertThat(g.out(1), is(3.0));
+    assertEquals(5 - 2 * Math.exp(-1), g.out(11), 1e-12);
+  }
+
+  @Test
+  public void testProcess() {
+    FilterTest.assertProcessSameAsInout(new FilterExponential(1, 10, new FixedTimeSource(123456)),
+        new FilterExponential(1, 10, new FixedTimeSource(123456)));
+  }
+
+  @Test
+  public void testProcessElapsedTime() {
+    final FixedTimeSource time = new FixedTimeSource(123456) {
+      @Override
+      public long nanoTime() {
+        // Each level of the block is input 10 ms after the previous one
+        advanceTime(10);
+        return super.nanoTime();
+      }
+    };
+    FilterExponential f = new FilterExponential(0, 10, time);
+    double[] levels = {1, 1, 1};
+    f.process(levels, 0, levels.length, levels);
+    assertThat(levels[0], is(0.0));
+    assertEquals(1 - Math.exp(-1), levels[1], 1e-12);
+    assertEquals(1 - Math.exp(-2), levels[2], 1e-12);
+  }
+
+  @Test
+  public void testProcessTimestamps() {
+    double[] levels = {3, 1, 4, 1, 5};
+    long[] times = {100, 103, 110, 111, 130};
+    double[] out = new double[levels.length];
+    FilterExponential batch = new FilterExponential(2, 10);
+    batch.process(levels, times, 0, levels.length, out);
+    FilterExponential scalar = new FilterExponential(2, 10);
+    for (int i = 0; i < levels.length; ++i) {
+      scalar.in(levels[i], times[i]);
+      assertThat(out[i], is(scalar.out(times[i])));
+    }
+    assertThat(batch.raw(), is(5.0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidTau() {
+    new FilterExponential(0);
+  }
+}
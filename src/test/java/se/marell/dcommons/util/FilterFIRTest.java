@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class FilterFIRTest {
+  @Test
+  public void testImpulseResponse() {
+    double[] c = {0.5, 0.25, 0.125, 0.0625};
+    FilterFIR f = new FilterFIR(c);
+    assertThat(f.inout(1), is(c[0]));
+    for (int i = 1; i < c.length; ++i) {
+      assertThat(f.inout(0), is(c[i]));
+    }
+    assertThat(f.inout(0), is(0.0));
+  }
+
+  @Test
+  public void testConvolution() {
+    Random random = new Random(17);
+    double[] c = new double[7];
+    for (int i = 0; i < c.length; ++i) {
+      c[i] = random.nextDouble();
+    }
+    FilterFIR f = new FilterFIR(c);
+    double[] levels = new double[100];
+    for (int i = 0; i < levels.length; ++i) {
+      levels[i] = random.nextGaussian();
+      double sum = 0;
+      for (int k = 0; k < c.length && k <= i; ++k) {
+        sum += c[k] * levels[i - k];
+      }
+      assertEquals(sum, f.inout(levels[i]), 1e-12);
+    }
+  }
+
+  @Test
+  public void testSet() {
+    FilterFIR f = new FilterFIR(new double[]{0.5, 0.5});
+    f.set(4);
+    assertThat(f.out(), is(4.0));
+    assertThat(f.inout(2), is(3.0));
+    assertThat(f.inout(2), is(2.0));
+  }
+
+  @Test
+  public void testProcess() {
+    double[] c = {0.1, 0.2, 0.4, 0.2, 0.1};
+    FilterTest.assertProcessSameAsInout(new FilterFIR(1, c), new FilterFIR(1, c));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoCoefficients() {
+    new FilterFIR(new double[0]);
+  }
+}
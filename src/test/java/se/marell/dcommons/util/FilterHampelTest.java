@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FilterHampelTest {
+  @Test
+  public void testOutlier() {
+    FilterHampel f = new FilterHampel(7, 3);
+    double[] levels = {10, 11, 9, 10, 12, 10, 11, 9, 10};
+    for (double level : levels) {
+      f.in(level);
+    }
+    // Window is {10, 12, 10, 11, 9, 10, 11} with median 10 and MAD 1
+    assertThat(f.inout(11), is(11.0));
+    assertThat(f.inout(8), is(8.0));
+    assertThat(f.inout(1000), is(10.0));
+    assertThat(f.inout(11), is(11.0));
+  }
+
+  @Test
+  public void testConstantWindow() {
+    FilterHampel f = new FilterHampel(5, 5, 3);
+    assertThat(f.inout(5), is(5.0));
+    assertThat(f.inout(6), is(5.0));
+  }
+
+  @Test
+  public void testSelect() {
+    Random random = new Random(17);
+    for (int n = 1; n < 20; ++n) {
+      double[] a = new double[n];
+      for (int round = 0; round < 50; ++round) {
+        for (int i = 0; i < n; ++i) {
+          a[i] = random.nextInt(5);
+        }
+        double[] sorted = a.clone();
+        Arrays.sort(sorted);
+        int k = random.nextInt(n);
+        assertThat(FilterHampel.select(a.clone(), n, k), is(sorted[k]));
+        double expected = n % 2 == 1 ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2;
+        assertThat(FilterHampel.median(a, n), is(expected));
+      }
+    }
+  }
+
+  @Test
+  public void testProcess() {
+    FilterTest.assertProcessSameAsInout(new FilterHampel(5, 1), new FilterHampel(5, 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidThreshold() {
+    new FilterHampel(5, -1);
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FilterMedianTest {
+  @Test
+  public void testMedian() {
+    Random random = new Random(17);
+    for (int length = 1; length < 10; ++length) {
+      FilterMedian f = new FilterMedian(length);
+      double[] window = new double[length];
+      for (int i = 0; i < 2000; ++i) {
+        // Few distinct levels to get many equal levels in the window
+        double level = random.nextInt(8);
+        window[i % length] = level;
+        f.in(level);
+        double[] sorted = window.clone();
+        Arrays.sort(sorted);
+        double expected = length % 2 == 1 ? sorted[length / 2] : (sorted[length / 2 - 1] + sorted[length / 2]) / 2;
+        assertThat("length " + length + " index " + i, f.out(), is(expected));
+      }
+    }
+  }
+
+  @Test
+  public void testSpike() {
+    FilterMedian f = new FilterMedian(1, 3);
+    assertThat(f.inout(100), is(1.0));
+    assertThat(f.inout(1), is(1.0));
+    assertThat(f.inout(2), is(2.0));
+    assertThat(f.inout(3), is(2.0));
+  }
+
+  @Test
+  public void testProcess() {
+    FilterTest.assertProcessSameAsInout(new FilterMedian(5, 6), new FilterMedian(5, 6));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidLength() {
+    new FilterMedian(0);
+  }
+}
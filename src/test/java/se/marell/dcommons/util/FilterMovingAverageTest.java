@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class FilterMovingAverageTest {
+  @Test
+  public void testMean() {
+    Random random = new Random(17);
+    for (int length = 1; length < 10; ++length) {
+      FilterMovingAverage f = new FilterMovingAverage(2, length);
+      double[] levels = new double[1000];
+      for (int i = 0; i < levels.length; ++i) {
+        levels[i] = random.nextGaussian() * 100;
+        f.in(levels[i]);
+        double sum = 0;
+        for (int j = i - length + 1; j <= i; ++j) {
+          sum += j < 0 ? 2 : levels[j];
+        }
+        assertEquals(sum / length, f.out(), 1e-9);
+      }
+    }
+  }
+
+  @Test
+  public void testSet() {
+    FilterMovingAverage f = new FilterMovingAverage(3);
+    f.in(9);
+    assertThat(f.out(), is(3.0));
+    f.set(1);
+    assertThat(f.out(), is(1.0));
+    f.in(4);
+    assertThat(f.out(), is(2.0));
+  }
+
+  @Test
+  public void testProcess() {
+    FilterTest.assertProcessSameAsInout(new FilterMovingAverage(5, 7), new FilterMovingAverage(5, 7));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidLength() {
+    new FilterMovingAverage(0);
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FilterTest {
+  /**
+   * Compare the batch output of a filter with calling inout for each level on a copy of it.
+   */
+  static void assertProcessSameAsInout(Filter batch, Filter scalar) {
+    Random random = new Random(17);
+    double[] levels = new double[1000];
+    for (int i = 0; i < levels.length; ++i) {
+      levels[i] = random.nextGaussian() * 100;
+    }
+    double[] out = new double[levels.length + 2];
+    batch.process(levels, 0, 1, out);
+    batch.process(levels, 1, levels.length - 1, out);
+    for (int i = 0; i < levels.length; ++i) {
+      assertThat("index " + i, Double.doubleToRawLongBits(out[i]),
+          is(Double.doubleToRawLongBits(scalar.inout(levels[i]))));
+    }
+    assertThat(batch.out(), is(scalar.out()));
+    assertThat(batch.raw(), is(scalar.raw()));
+  }
+
+  @Test
+  public void testProcess() {
+    assertProcessSameAsInout(new Filter(1), new Filter(1));
+  }
+
+  @Test
+  public void testProcessSIIR() {
+    for (int length = 1; length < 10; ++length) {
+      assertProcessSameAsInout(new FilterSIIR(5, length), new FilterSIIR(5, length));
+    }
+  }
+
+  @Test
+  public void testProcessInPlace() {
+    double[] levels = {1, 2, 3, 4};
+    new FilterSIIR(0, 2).process(levels, 1, 2, levels);
+    assertThat(levels[0], is(1.0));
+    assertThat(levels[1], is(1.0));
+    assertThat(levels[2], is(2.0));
+    assertThat(levels[3], is(4.0));
+  }
+}
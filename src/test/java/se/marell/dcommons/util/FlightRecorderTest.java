@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import se.marell.dcommons.time.FixedTimeSource;
+import se.marell.dcommons.time.TimeSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+public class FlightRecorderTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testDump() throws Exception {
+    final long[] nanos = {0};
+    final long millis = new FixedTimeSource("2026-01-02 03:04:05").currentTimeMillis();
+    final FlightRecorder recorder = new FlightRecorder(2, new TimeSource() {
+      @Override
+      public long currentTimeMillis() {
+        return millis;
+      }
+
+      @Override
+      public long nanoTime() {
+        return nanos[0];
+      }
+    });
+    recorder.record("a");
+    nanos[0] += 1000000;
+    recorder.record("b", 1);
+    nanos[0] += 1000000;
+    recorder.record("c", 2, 3);
+    Thread t = new Thread(() -> recorder.record("d", 4), "worker");
+    t.start();
+    t.join();
+    StringWriter out = new StringWriter();
+    recorder.dump(out);
+    String nl = System.lineSeparator();
+    assertThat(out.toString(), is("Thread " + Thread.currentThread().getName() + nl +
+        "2026-01-02 03:04:05.001 b 1 0" + nl +
+        "2026-01-02 03:04:05.002 c 2 3" + nl +
+        "Thread worker" + nl +
+        "2026-01-02 03:04:05.002 d 4 0" + nl));
+    // The terminated worker was removed by the dump
+    recorder.clear();
+    out = new StringWriter();
+    recorder.dump(out);
+    assertThat(out.toString(), is("Thread " + Thread.currentThread().getName() + nl));
+  }
+
+  @Test
+  public void testMaxTerminatedThreads() throws Exception {
+    final FlightRecorder recorder = new FlightRecorder(10);
+    recorder.setMaxTerminatedThreads(2);
+    for (int i = 0; i < 5; ++i) {
+      Thread t = new Thread(() -> recorder.record("x"), "worker" + i);
+      t.start();
+      t.join();
+    }
+    // The last terminated thread is counted when the next thread records
+    recorder.record("main");
+    assertThat(recorder.getThreadCount(), is(3));
+    StringWriter out = new StringWriter();
+    recorder.dump(out);
+    assertThat(out.toString(), not(containsString("worker2")));
+    assertThat(out.toString(), containsString("worker3"));
+    assertThat(out.toString(), containsString("worker4"));
+    assertThat(recorder.getThreadCount(), is(1));
+  }
+
+  @Test(expected = IOException.class)
+  public void testDumpWriteError() throws Exception {
+    FlightRecorder recorder = new FlightRecorder(10);
+    recorder.record("x");
+    recorder.dump(new Writer() {
+      @Override
+      public void write(char[] buf, int off, int len) throws IOException {
+        throw new IOException("disk full");
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+  }
+
+  @Test
+  public void testDumpOnUncaughtException() throws Exception {
+    Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+    try {
+      final FlightRecorder recorder = new FlightRecorder(10);
+      File file = new File(folder.getRoot(), "flight.txt");
+      // Called after the dump instead of printing the expected stack trace
+      Thread.setDefaultUncaughtExceptionHandler((t, e) -> {
+      });
+      recorder.dumpOnUncaughtException(file);
+      Thread t = new Thread(() -> {
+        recorder.record("before failure", 17);
+        throw new IllegalStateException("failure");
+      }, "failing");
+      t.start();
+      t.join();
+      String dump = new String(Files.readAllBytes(file.toPath()), "UTF-8");
+      assertThat(dump, containsString("Thread failing"));
+      assertThat(dump, containsString("before failure 17 0"));
+      assertThat(dump, containsString("uncaught java.lang.IllegalStateException: failure"));
+    } finally {
+      Thread.setDefaultUncaughtExceptionHandler(previous);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IntQueueBufferTest {
+  @Test
+  public void testWrapAround() {
+    IntQueueBuffer q = new IntQueueBuffer(3);
+    int next = 0;
+    for (int i = 0; i < 100; ++i) {
+      q.putLast(i);
+      if (q.isFull()) {
+        assertThat(q.offer(-1), is(false));
+        assertThat(q.search(i), is(2));
+        assertThat(q.getFirst(), is(next++));
+        assertThat(q.getFirst(), is(next++));
+      }
+    }
+    assertThat(q.size(), is(2));
+    assertThat(q.peek(), is(98));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testGetFirstEmpty() {
+    new IntQueueBuffer(1).getFirst();
+  }
+
+  @Test
+  public void testGrow() {
+    IntQueueBuffer q = new IntQueueBuffer(3);
+    q.setGrowLimit(10);
+    q.putLast(0);
+    q.putLast(1);
+    q.getFirst();
+    q.putLast(2);
+    q.putLast(3);
+    // Full and wrapped, next insert doubles the capacity
+    q.putLast(4);
+    assertThat(q.getMaxSize(), is(6));
+    assertThat(q.putAll(new int[]{5, 6, 7, 8, 9, 10, 11}, 0, 7), is(6));
+    assertThat(q.getMaxSize(), is(10));
+    assertThat(q.getGrowLimit(), is(10));
+    assertThat(q.offer(11), is(false));
+    int[] dst = new int[10];
+    assertThat(q.drainTo(dst, 0, 10), is(10));
+    assertThat(dst, is(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}));
+  }
+
+  @Test
+  public void testDrain() {
+    IntQueueBuffer q = new IntQueueBuffer(4);
+    q.putLast(0);
+    q.putLast(1);
+    q.putLast(2);
+    q.getFirst();
+    q.getFirst();
+    // Wraps around the end of the array
+    assertThat(q.putAll(new int[]{3, 4, 5, 6}, 0, 4), is(3));
+    int[] dst = new int[5];
+    assertThat(q.drainTo(dst, 1, 2), is(2));
+    assertThat(dst, is(new int[]{0, 2, 3, 0, 0}));
+    final StringBuilder sb = new StringBuilder();
+    assertThat(q.drainTo(v -> sb.append(v).append(' '), 10), is(2));
+    assertThat(sb.toString(), is("4 5 "));
+    assertThat(q.isEmpty(), is(true));
+    assertThat(q.drainTo(dst, 0, 5), is(0));
+  }
+}
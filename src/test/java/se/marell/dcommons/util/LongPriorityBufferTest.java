@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LongPriorityBufferTest {
+  @Test
+  public void testTopK() {
+    Random random = new Random(17);
+    LongPriorityBuffer<String> b = new LongPriorityBuffer<String>(5);
+    b.setEvictLowest(true);
+    long[] all = new long[500];
+    for (int i = 0; i < all.length; ++i) {
+      all[i] = random.nextLong();
+      b.offer(all[i], "v" + all[i]);
+    }
+    Arrays.sort(all);
+    long[] keys = new long[5];
+    String[] values = new String[5];
+    assertThat(b.drainTo(keys, values, 0), is(5));
+    for (int i = 0; i < 5; ++i) {
+      assertThat(keys[i], is(all[all.length - 1 - i]));
+      assertThat(values[i], is("v" + keys[i]));
+    }
+    assertThat(b.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testLowest() {
+    LongPriorityBuffer<String> b = new LongPriorityBuffer<String>(3, 2);
+    b.offer(2, "b");
+    b.offer(1, null);
+    b.offer(3, "c");
+    assertThat(b.isFull(), is(true));
+    assertThat(b.offer(4, "d"), is(false));
+    assertThat(b.peekLowestKey(), is(1L));
+    assertThat(b.pollLowest() == null, is(true));
+    assertThat(b.peekLowestKey(), is(2L));
+    assertThat(b.peekLowest(), is("b"));
+    assertThat(b.pollLowest(), is("b"));
+    assertThat(b.size(), is(1));
+    b.clear();
+    assertThat(b.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testEvictLowest() {
+    LongPriorityBuffer<String> b = new LongPriorityBuffer<String>(2);
+    b.setEvictLowest(true);
+    b.offer(5, "a");
+    b.offer(7, "b");
+    assertThat(b.offer(5, "c"), is(false));
+    assertThat(b.offer(6, "d"), is(true));
+    assertThat(b.pollLowest(), is("d"));
+    assertThat(b.pollLowest(), is("b"));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testPollEmpty() {
+    new LongPriorityBuffer<String>(1).pollLowest();
+  }
+}
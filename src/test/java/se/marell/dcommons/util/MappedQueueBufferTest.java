@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import se.marell.dcommons.time.FixedTimeSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class MappedQueueBufferTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testPutLastAndGetFirst() throws Exception {
+    MappedQueueBuffer q = new MappedQueueBuffer(new File(folder.getRoot(), "q"), 3, 4,
+        MappedQueueBuffer.FlushPolicy.everyWrite());
+    assertThat(q.getFirst(), is(nullValue()));
+    assertThat(q.putLast(new byte[]{1}), is(true));
+    assertThat(q.putLast(new byte[]{2, 3}), is(true));
+    assertThat(q.putLast(new byte[]{}), is(true));
+    assertThat(q.putLast(new byte[]{4}), is(false));
+    assertThat(q.isFull(), is(true));
+    assertThat(q.getFirst(), is(new byte[]{1}));
+    byte[] dst = new byte[4];
+    assertThat(q.peek(dst, 1), is(2));
+    assertThat(q.getFirst(dst, 1), is(2));
+    assertThat(dst, is(new byte[]{0, 2, 3, 0}));
+    assertThat(q.getFirst(), is(new byte[]{}));
+    assertThat(q.getFirst(dst, 0), is(-1));
+    q.close();
+  }
+
+  @Test
+  public void testRecover() throws Exception {
+    File f = new File(folder.getRoot(), "q");
+    MappedQueueBuffer q = new MappedQueueBuffer(f, 4, 8, MappedQueueBuffer.FlushPolicy.everyNWrites(10));
+    for (byte i = 0; i < 10; ++i) {
+      q.putLast(new byte[]{i, i});
+      if (q.isFull()) {
+        q.getFirst();
+        q.getFirst();
+      }
+    }
+    q.close();
+
+    q = new MappedQueueBuffer(f, 4, 8, MappedQueueBuffer.FlushPolicy.never());
+    assertThat(q.size(), is(2));
+    assertThat(q.getFirst(), is(new byte[]{8, 8}));
+    assertThat(q.getFirst(), is(new byte[]{9, 9}));
+    assertThat(q.isEmpty(), is(true));
+    q.close();
+  }
+
+  @Test
+  public void testPeriodicFlush() throws Exception {
+    FixedTimeSource ts = new FixedTimeSource(0);
+    MappedQueueBuffer q = new MappedQueueBuffer(new File(folder.getRoot(), "q"), 100, 8,
+        MappedQueueBuffer.FlushPolicy.periodic(1000, ts));
+    for (int i = 0; i < 100; ++i) {
+      assertThat(q.putLast(new byte[]{(byte) i}), is(true));
+      // The first write after each elapsed second is flushed
+      assertThat(q.getFlushCount(), is(i / 10));
+      ts.advanceTime(100);
+    }
+    assertThat(q.size(), is(100));
+    q.close();
+    assertThat(q.getFlushCount(), is(10));
+  }
+
+  @Test(expected = IOException.class)
+  public void testIncompatibleFile() throws Exception {
+    File f = new File(folder.getRoot(), "q");
+    new MappedQueueBuffer(f, 4, 8, MappedQueueBuffer.FlushPolicy.never()).close();
+    new MappedQueueBuffer(f, 4, 16, MappedQueueBuffer.FlushPolicy.never());
+  }
+
+  @Test(expected = IOException.class)
+  public void testCorruptRecordLength() throws Exception {
+    File f = new File(folder.getRoot(), "q");
+    MappedQueueBuffer q = new MappedQueueBuffer(f, 4, 8, MappedQueueBuffer.FlushPolicy.never());
+    q.putLast(new byte[]{1});
+    q.putLast(new byte[]{2});
+    q.close();
+    // Length of the second record, after the 64 byte header and the 12 byte first slot
+    RandomAccessFile raf = new RandomAccessFile(f, "rw");
+    try {
+      raf.seek(64 + 12);
+      raf.writeInt(9);
+    } finally {
+      raf.close();
+    }
+    new MappedQueueBuffer(f, 4, 8, MappedQueueBuffer.FlushPolicy.never());
+  }
+
+  @Test
+  public void testClosed() throws Exception {
+    MappedQueueBuffer q = new MappedQueueBuffer(new File(folder.getRoot(), "q"), 4, 8,
+        MappedQueueBuffer.FlushPolicy.never());
+    q.putLast(new byte[]{1});
+    q.close();
+    q.close();
+    try {
+      q.putLast(new byte[]{2});
+      fail();
+    } catch (IllegalStateException ignore) {
+    }
+    try {
+      q.getFirst();
+      fail();
+    } catch (IllegalStateException ignore) {
+    }
+    try {
+      q.peek(new byte[8], 0);
+      fail();
+    } catch (IllegalStateException ignore) {
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooLongRecord() throws Exception {
+    MappedQueueBuffer q = new MappedQueueBuffer(new File(folder.getRoot(), "q"), 4, 2,
+        MappedQueueBuffer.FlushPolicy.never());
+    try {
+      q.putLast(new byte[3]);
+    } finally {
+      q.close();
+    }
+  }
+}
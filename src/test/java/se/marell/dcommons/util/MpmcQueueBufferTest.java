@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class MpmcQueueBufferTest {
+  @Test
+  public void testOfferAndPoll() {
+    MpmcQueueBuffer<Integer> q = new MpmcQueueBuffer<Integer>(3);
+    assertThat(q.getMaxSize(), is(4));
+    assertThat(q.poll(), is(nullValue()));
+    for (int i = 0; i < 4; ++i) {
+      assertThat(q.offer(i), is(true));
+    }
+    assertThat(q.isFull(), is(true));
+    assertThat(q.offer(4), is(false));
+    for (int i = 0; i < 4; ++i) {
+      assertThat(q.poll(), is(i));
+    }
+    assertThat(q.isEmpty(), is(true));
+    assertThat(q.poll(), is(nullValue()));
+  }
+
+  @Test
+  public void testWrap() {
+    MpmcQueueBuffer<Integer> q = new MpmcQueueBuffer<Integer>(8);
+    int next = 0;
+    for (int i = 0; i < 100; ++i) {
+      assertThat(q.offer(i), is(true));
+      if (q.size() == 7) {
+        for (int j = 0; j < 5; ++j) {
+          assertThat(q.poll(), is(next++));
+        }
+      }
+    }
+    while (!q.isEmpty()) {
+      assertThat(q.poll(), is(next++));
+    }
+    assertThat(next, is(100));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testOfferNull() {
+    new MpmcQueueBuffer<Integer>(2).offer(null);
+  }
+
+  @Test(timeout = 60000)
+  public void testProducersAndConsumers() throws Exception {
+    final int threads = 4;
+    final int perProducer = 200000;
+    final MpmcQueueBuffer<Integer> q = new MpmcQueueBuffer<Integer>(128);
+    final AtomicLong sum = new AtomicLong();
+    final AtomicLong count = new AtomicLong();
+    List<Thread> all = new ArrayList<Thread>();
+    for (int p = 0; p < threads; ++p) {
+      all.add(new Thread() {
+        @Override
+        public void run() {
+          for (int i = 1; i <= perProducer; ++i) {
+            while (!q.offer(i)) {
+              Thread.yield();
+            }
+          }
+        }
+      });
+    }
+    for (int c = 0; c < threads; ++c) {
+      all.add(new Thread() {
+        @Override
+        public void run() {
+          while (count.get() < (long) threads * perProducer) {
+            Integer i = q.poll();
+            if (i == null) {
+              Thread.yield();
+            } else {
+              sum.addAndGet(i);
+              count.incrementAndGet();
+            }
+          }
+        }
+      });
+    }
+    for (Thread t : all) {
+      t.start();
+    }
+    for (Thread t : all) {
+      t.join();
+    }
+    assertThat(count.get(), is((long) threads * perProducer));
+    assertThat(sum.get(), is(threads * (long) perProducer * (perProducer + 1) / 2));
+    assertThat(q.isEmpty(), is(true));
+  }
+}
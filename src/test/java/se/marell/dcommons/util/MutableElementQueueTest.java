@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class MutableElementQueueTest {
+  private static class Sample {
+    int value;
+  }
+
+  private static MutableElementQueue<Sample> createQueue(int size) {
+    return new MutableElementQueue<Sample>(new Sample[size], new MutableElementQueue.Initializer<Sample>() {
+      @Override
+      public Sample create() {
+        return new Sample();
+      }
+    });
+  }
+
+  @Test
+  public void testPutLastAndGetFirst() {
+    MutableElementQueue<Sample> q = createQueue(2);
+    assertThat(q.getFirst(), is(nullValue()));
+    q.putLast().value = 1;
+    q.putLast().value = 2;
+    assertThat(q.putLast(), is(nullValue()));
+    assertThat(q.getFirst().value, is(1));
+    q.putLast().value = 3;
+    assertThat(q.getFirst().value, is(2));
+    assertThat(q.getFirst().value, is(3));
+    assertThat(q.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testIndexedAccess() {
+    MutableElementQueue<Sample> q = createQueue(3);
+    q.putLast().value = 1;
+    q.putLast().value = 2;
+    q.getFirst();
+    q.putLast().value = 3;
+    q.putLast().value = 4;
+    assertThat(q.get(0).value, is(2));
+    assertThat(q.get(2).value, is(4));
+    final List<Integer> values = new ArrayList<Integer>();
+    q.forEach(s -> values.add(s.value));
+    assertThat(values.toString(), is("[2, 3, 4]"));
+    values.clear();
+    for (Sample s : q) {
+      values.add(s.value);
+    }
+    assertThat(values.toString(), is("[2, 3, 4]"));
+    Sample[] dst = new Sample[4];
+    assertThat(q.copyTo(dst), is(3));
+    assertThat(dst[2], is(sameInstance(q.get(2))));
+  }
+
+  @Test
+  public void testInitArrayIsUsed() {
+    Sample[] initArray = new Sample[3];
+    MutableElementQueue<Sample> q = new MutableElementQueue<Sample>(initArray, Sample::new);
+    assertThat(q.getMaxSize(), is(3));
+    for (Sample s : initArray) {
+      assertThat(s == null, is(false));
+    }
+    for (int i = 0; i < 7; ++i) {
+      Sample s = q.putLast();
+      assertThat(s, is(sameInstance(initArray[i % 3])));
+      s.value = i;
+      assertThat(q.getFirst().value, is(i));
+    }
+    q.putLast();
+    q.putLast();
+    q.putLast();
+    assertThat(q.isFull(), is(true));
+    assertThat(q.putLast(), is(nullValue()));
+  }
+
+  @Test
+  public void testGrow() {
+    MutableElementQueue<Sample> q = createQueue(2);
+    q.setGrowLimit(5);
+    q.putLast().value = 0;
+    q.putLast().value = 1;
+    q.getFirst();
+    q.putLast().value = 2;
+    q.putLast().value = 3;
+    assertThat(q.getMaxSize(), is(4));
+    final int[] next = {4};
+    assertThat(q.putAll(s -> s.value = next[0]++, 3), is(2));
+    assertThat(q.getMaxSize(), is(5));
+    assertThat(q.putLast(), is(nullValue()));
+    for (int i = 1; i <= 5; ++i) {
+      assertThat(q.getFirst().value, is(i));
+    }
+    assertThat(q.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testBatch() {
+    MutableElementQueue<Sample> q = createQueue(4);
+    q.putLast().value = 0;
+    q.putLast().value = 1;
+    q.getFirst();
+    q.getFirst();
+    final int[] next = {2};
+    assertThat(q.putAll(s -> s.value = next[0]++, 10), is(4));
+    assertThat(q.isFull(), is(true));
+    Sample[] dst = new Sample[2];
+    assertThat(q.drainTo(dst, 0, 2), is(2));
+    assertThat(dst[0].value, is(2));
+    assertThat(dst[1].value, is(3));
+    Sample reused = q.putLast();
+    assertThat(reused, is(sameInstance(dst[0])));
+    reused.value = 6;
+    final List<Integer> drained = new ArrayList<Integer>();
+    assertThat(q.drainTo(s -> drained.add(s.value), 10), is(3));
+    assertThat(drained.toString(), is("[4, 5, 6]"));
+    assertThat(q.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testPutAllWriterFails() {
+    MutableElementQueue<Sample> q = createQueue(4);
+    final int[] next = {0};
+    try {
+      q.putAll(s -> {
+        if (next[0] == 2) {
+          throw new IllegalStateException();
+        }
+        s.value = next[0]++;
+      }, 4);
+      fail();
+    } catch (IllegalStateException ignore) {
+    }
+    assertThat(q.size(), is(2));
+    assertThat(q.getFirst().value, is(0));
+    assertThat(q.getFirst().value, is(1));
+    assertThat(q.isEmpty(), is(true));
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class OffHeapElementQueueTest {
+  private static final int TIMESTAMP = 0;
+  private static final int VALUE = 8;
+  private static final int FLAGS = 16;
+
+  @Test
+  public void testPutLastAndGetFirst() {
+    OffHeapElementQueue q = new OffHeapElementQueue(3, 20);
+    assertThat(q.getRecordSize(), is(20));
+    assertThat(q.getFirst(), is(nullValue()));
+    for (int i = 0; i < 3; ++i) {
+      q.putLast().putLong(TIMESTAMP, 1000 + i).putDouble(VALUE, i * 0.5).putInt(FLAGS, i);
+    }
+    assertThat(q.isFull(), is(true));
+    assertThat(q.putLast(), is(nullValue()));
+    assertThat(q.peek().getLong(TIMESTAMP), is(1000L));
+    for (int i = 0; i < 3; ++i) {
+      OffHeapElementQueue.Record r = q.getFirst();
+      assertThat(r.getLong(TIMESTAMP), is(1000L + i));
+      assertThat(r.getDouble(VALUE), is(i * 0.5));
+      assertThat(r.getInt(FLAGS), is(i));
+    }
+    assertThat(q.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testWrap() {
+    OffHeapElementQueue q = new OffHeapElementQueue(4, 8);
+    long next = 0;
+    for (long i = 0; i < 100; ++i) {
+      q.putLast().putLong(0, i);
+      if (q.isFull()) {
+        assertThat(q.getFirst().getLong(0), is(next++));
+        assertThat(q.getFirst().getLong(0), is(next++));
+      }
+    }
+    while (!q.isEmpty()) {
+      assertThat(q.getFirst().getLong(0), is(next++));
+    }
+    assertThat(next, is(100L));
+  }
+
+  @Test
+  public void testBytes() {
+    OffHeapElementQueue q = new OffHeapElementQueue(1, 4);
+    q.putLast().putBytes(0, new byte[]{9, 1, 2, 3, 4}, 1, 4);
+    byte[] dst = new byte[4];
+    q.getFirst().getBytes(0, dst, 0, 4);
+    assertThat(dst, is(new byte[]{1, 2, 3, 4}));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooLarge() {
+    new OffHeapElementQueue(Integer.MAX_VALUE / 4, 8);
+  }
+}
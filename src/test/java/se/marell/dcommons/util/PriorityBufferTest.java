@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PriorityBufferTest {
+  @Test
+  public void testOfferAndPoll() {
+    PriorityBuffer<Integer> b = new PriorityBuffer<Integer>(4, Comparator.<Integer>naturalOrder());
+    assertThat(b.offer(5), is(true));
+    assertThat(b.offer(1), is(true));
+    assertThat(b.offer(9), is(true));
+    assertThat(b.offer(3), is(true));
+    assertThat(b.isFull(), is(true));
+    assertThat(b.offer(7), is(false));
+    assertThat(b.peekLowest(), is(1));
+    assertThat(b.pollLowest(), is(1));
+    assertThat(b.pollLowest(), is(3));
+    assertThat(b.pollLowest(), is(5));
+    assertThat(b.pollLowest(), is(9));
+    assertThat(b.isEmpty(), is(true));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testPollEmpty() {
+    new PriorityBuffer<Integer>(4, Comparator.<Integer>naturalOrder()).pollLowest();
+  }
+
+  @Test
+  public void testTopK() {
+    for (int arity = 2; arity <= 5; ++arity) {
+      Random random = new Random(arity);
+      PriorityBuffer<Integer> b = new PriorityBuffer<Integer>(10, arity, Comparator.<Integer>naturalOrder());
+      b.setEvictLowest(true);
+      Integer[] all = new Integer[1000];
+      for (int i = 0; i < all.length; ++i) {
+        all[i] = random.nextInt(100000);
+        b.offer(all[i]);
+      }
+      Arrays.sort(all, Comparator.reverseOrder());
+      Integer[] top = new Integer[12];
+      assertThat(b.drainTo(top, 2), is(10));
+      assertThat(Arrays.asList(top).subList(2, 12), is(Arrays.asList(all).subList(0, 10)));
+      assertThat(b.isEmpty(), is(true));
+    }
+  }
+
+  @Test
+  public void testEvictLowestRejectsLower() {
+    PriorityBuffer<Integer> b = new PriorityBuffer<Integer>(2, Comparator.<Integer>naturalOrder());
+    b.setEvictLowest(true);
+    b.offer(5);
+    b.offer(6);
+    assertThat(b.offer(4), is(false));
+    assertThat(b.offer(5), is(false));
+    assertThat(b.offer(7), is(true));
+    assertThat(b.peekLowest(), is(6));
+  }
+}
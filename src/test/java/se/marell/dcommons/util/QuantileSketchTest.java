@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class QuantileSketchTest {
+  private static final double[] QUANTILES = {0, 0.01, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1};
+
+  private static void assertAccurate(QuantileSketch sketch, double[] values, double accuracy) {
+    double[] sorted = values.clone();
+    Arrays.sort(sorted);
+    for (double q : QUANTILES) {
+      double exact = sorted[(int) (q * (sorted.length - 1))];
+      double approx = sketch.getQuantile(q);
+      assertThat("quantile " + q + " exact " + exact + " approx " + approx,
+          Math.abs(approx - exact) <= accuracy * Math.abs(exact), is(true));
+    }
+  }
+
+  @Test
+  public void testAccuracy() {
+    Random random = new Random(17);
+    QuantileSketch sketch = new QuantileSketch();
+    double[] values = new double[10000];
+    for (int i = 0; i < values.length; ++i) {
+      values[i] = Math.exp(random.nextGaussian() * 3);
+      sketch.add(values[i]);
+    }
+    assertThat(sketch.getCount(), is(10000L));
+    assertAccurate(sketch, values, 0.01);
+    assertThat(sketch.getQuantile(0), is(sketch.getMin()));
+    assertThat(sketch.getQuantile(1), is(sketch.getMax()));
+  }
+
+  @Test
+  public void testNegativeAndZero() {
+    Random random = new Random(17);
+    QuantileSketch sketch = new QuantileSketch(0.02, 1000);
+    double[] values = new double[5000];
+    for (int i = 0; i < values.length; ++i) {
+      values[i] = i % 10 == 0 ? 0 : random.nextGaussian() * 100;
+      sketch.add(values[i]);
+    }
+    assertAccurate(sketch, values, 0.02);
+  }
+
+  @Test
+  public void testMerge() {
+    Random random = new Random(17);
+    QuantileSketch all = new QuantileSketch();
+    QuantileSketch merged = new QuantileSketch();
+    double[] values = new double[8000];
+    for (int part = 0; part < 4; ++part) {
+      QuantileSketch sketch = new QuantileSketch();
+      for (int i = part * 2000; i < (part + 1) * 2000; ++i) {
+        values[i] = (part + 1) * 1000 * random.nextDouble() - 500;
+        sketch.add(values[i]);
+        all.add(values[i]);
+      }
+      merged.merge(sketch);
+    }
+    assertThat(merged.getCount(), is(all.getCount()));
+    for (double q : QUANTILES) {
+      assertThat(merged.getQuantile(q), is(all.getQuantile(q)));
+    }
+    assertAccurate(merged, values, 0.01);
+  }
+
+  @Test
+  public void testCollapse() {
+    QuantileSketch sketch = new QuantileSketch(0.01, 100);
+    double[] values = new double[1000];
+    for (int i = 0; i < values.length; ++i) {
+      // Spans more orders of magnitude than 100 buckets can hold
+      values[i] = Math.pow(10, i % 20 - 10);
+      sketch.add(values[i]);
+    }
+    assertThat(sketch.getCount(), is(1000L));
+    // The largest values keep their accuracy
+    assertThat(Math.abs(sketch.getQuantile(0.99) - 1e9) <= 1e7, is(true));
+    assertThat(sketch.getQuantile(0) <= sketch.getQuantile(0.5), is(true));
+    // Collapse when a value far below the buckets is added
+    sketch.add(1e-300);
+    assertThat(sketch.getCount(), is(1001L));
+    assertThat(sketch.getMin(), is(1e-300));
+  }
+
+  @Test
+  public void testEmptyAndClear() {
+    QuantileSketch sketch = new QuantileSketch();
+    assertThat(Double.isNaN(sketch.getQuantile(0.5)), is(true));
+    sketch.add(3);
+    assertThat(Math.abs(sketch.getQuantile(0.5) - 3) <= 0.03, is(true));
+    sketch.clear();
+    assertThat(sketch.getCount(), is(0L));
+    sketch.add(-7);
+    assertThat(Math.abs(sketch.getQuantile(0.5) + 7) <= 0.07, is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMergeDifferentAccuracy() {
+    new QuantileSketch(0.01, 100).merge(new QuantileSketch(0.02, 100));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNaN() {
+    new QuantileSketch().add(Double.NaN);
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class QueueBufferAdapterTest {
+  @Test
+  public void testQueue() {
+    BlockingQueue<Integer> q = new QueueBufferAdapter<Integer>(new QueueBuffer<Integer>(3));
+    assertThat(q.poll(), is(nullValue()));
+    assertThat(q.peek(), is(nullValue()));
+    assertThat(q.offer(1), is(true));
+    assertThat(q.add(2), is(true));
+    assertThat(q.offer(3), is(true));
+    assertThat(q.offer(4), is(false));
+    assertThat(q.remainingCapacity(), is(0));
+    assertThat(q.peek(), is(1));
+    assertThat(q.poll(), is(1));
+    assertThat(q.offer(4), is(true));
+    assertThat(q.toString(), is("[2, 3, 4]"));
+    assertThat(q.contains(3), is(true));
+    List<Integer> drained = new ArrayList<Integer>();
+    assertThat(q.drainTo(drained, 2), is(2));
+    assertThat(drained.toString(), is("[2, 3]"));
+    q.clear();
+    assertThat(q.isEmpty(), is(true));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testOfferNull() {
+    new QueueBufferAdapter<Integer>(new QueueBuffer<Integer>(3)).offer(null);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testAddFull() {
+    BlockingQueue<Integer> q = new QueueBufferAdapter<Integer>(new QueueBuffer<Integer>(1));
+    q.add(1);
+    q.add(2);
+  }
+
+  @Test
+  public void testRemainingCapacityWithGrowLimit() {
+    QueueBuffer<Integer> buffer = new QueueBuffer<Integer>(2);
+    buffer.setGrowLimit(8);
+    BlockingQueue<Integer> q = new QueueBufferAdapter<Integer>(buffer);
+    q.add(1);
+    assertThat(q.remainingCapacity(), is(7));
+  }
+
+  @Test
+  public void testRemove() {
+    BlockingQueue<Integer> q = new QueueBufferAdapter<Integer>(new QueueBuffer<Integer>(4));
+    q.addAll(Arrays.asList(1, 2, 3, 4));
+    assertThat(q.remove(3), is(true));
+    assertThat(q.remove(3), is(false));
+    assertThat(q.remove(null), is(false));
+    q.removeIf(i -> i == 1);
+    assertThat(q.toString(), is("[2, 4]"));
+  }
+
+  @Test(timeout = 60000)
+  public void testExecutorRemoveAndPurge() throws Exception {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+        new QueueBufferAdapter<Runnable>(new QueueBuffer<Runnable>(10)));
+    executor.execute(() -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    started.await();
+    final AtomicInteger count = new AtomicInteger();
+    Runnable removed = count::incrementAndGet;
+    executor.execute(removed);
+    Future<?> cancelled = executor.submit(count::incrementAndGet);
+    executor.execute(count::incrementAndGet);
+    assertThat(executor.remove(removed), is(true));
+    cancelled.cancel(false);
+    executor.purge();
+    assertThat(executor.getQueue().size(), is(1));
+    executor.shutdown();
+    release.countDown();
+    assertThat(executor.awaitTermination(50, TimeUnit.SECONDS), is(true));
+    assertThat(count.get(), is(1));
+  }
+
+  @Test(timeout = 60000)
+  public void testExecutorShutdownNow() throws Exception {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+        new QueueBufferAdapter<Runnable>(new QueueBuffer<Runnable>(10)));
+    final CountDownLatch started = new CountDownLatch(1);
+    executor.execute(() -> {
+      started.countDown();
+      try {
+        Thread.sleep(60000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    started.await();
+    for (int i = 0; i < 3; ++i) {
+      executor.execute(() -> {
+      });
+    }
+    assertThat(executor.shutdownNow().size(), is(3));
+    assertThat(executor.awaitTermination(50, TimeUnit.SECONDS), is(true));
+  }
+
+  @Test(timeout = 60000)
+  public void testExecutor() throws Exception {
+    final AtomicInteger count = new AtomicInteger();
+    ExecutorService executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.SECONDS,
+        new QueueBufferAdapter<Runnable>(new QueueBuffer<Runnable>(1000)));
+    for (int i = 0; i < 500; ++i) {
+      executor.execute(count::incrementAndGet);
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(50, TimeUnit.SECONDS), is(true));
+    assertThat(count.get(), is(500));
+  }
+}
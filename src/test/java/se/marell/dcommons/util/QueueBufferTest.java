@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class QueueBufferTest {
+  @Test
+  public void testPutLastAndGetFirst() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(3);
+    assertThat(q.isEmpty(), is(true));
+    assertThat(q.getFirst(), is(nullValue()));
+    q.putLast(1);
+    q.putLast(2);
+    assertThat(q.offer(3), is(true));
+    assertThat(q.offer(4), is(false));
+    assertThat(q.isFull(), is(true));
+    assertThat(q.search(2), is(1));
+    assertThat(q.getFirst(), is(1));
+    assertThat(q.getFirst(), is(2));
+    assertThat(q.getFirst(), is(3));
+    assertThat(q.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testBatch() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(5);
+    q.putLast(0);
+    q.putLast(1);
+    q.putLast(2);
+    assertThat(q.getFirst(), is(0));
+    assertThat(q.getFirst(), is(1));
+    // Wraps around the end of the array
+    assertThat(q.putAll(new Integer[]{9, 3, 4, 5, 6, 7}, 1, 5), is(4));
+    assertThat(q.isFull(), is(true));
+    Integer[] dst = new Integer[6];
+    assertThat(q.drainTo(dst, 1, 3), is(3));
+    assertThat(dst, is(new Integer[]{null, 2, 3, 4, null, null}));
+    assertThat(q.putAll(new Integer[]{7, 8}, 0, 2), is(2));
+    final List<Integer> drained = new ArrayList<Integer>();
+    assertThat(q.drainTo(drained::add, 10), is(4));
+    assertThat(drained.toString(), is("[5, 6, 7, 8]"));
+    assertThat(q.isEmpty(), is(true));
+    assertThat(q.drainTo(dst, 0, 6), is(0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testPutLastFull() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(1);
+    q.putLast(1);
+    q.putLast(2);
+  }
+
+  @Test
+  public void testOverwriteOldest() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(3);
+    q.setOverwriteOldest(true);
+    for (int i = 0; i < 5; ++i) {
+      q.putLast(i);
+    }
+    assertThat(q.size(), is(3));
+    assertThat(q.offer(5), is(true));
+    assertThat(window(q), is("[3, 4, 5]"));
+    assertThat(q.putAll(new Integer[]{6, 7}, 0, 2), is(2));
+    assertThat(window(q), is("[5, 6, 7]"));
+    assertThat(q.putAll(new Integer[]{8, 9, 10, 11, 12}, 0, 5), is(5));
+    assertThat(window(q), is("[10, 11, 12]"));
+    assertThat(q.getFirst(), is(10));
+    assertThat(window(q), is("[11, 12]"));
+  }
+
+  private static String window(QueueBuffer<Integer> q) {
+    final List<Object> window = new ArrayList<Object>();
+    q.visitWindow((elements, from, to) -> {
+      for (int i = from; i < to; ++i) {
+        window.add(elements[i]);
+      }
+    });
+    return window.toString();
+  }
+
+  @Test
+  public void testIteratorAfterWrap() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(3);
+    q.putLast(1);
+    q.putLast(2);
+    q.getFirst();
+    q.putLast(3);
+    q.putLast(4);
+    List<Integer> values = new ArrayList<Integer>();
+    for (Integer i : q) {
+      values.add(i);
+    }
+    assertThat(values.toString(), is("[2, 3, 4]"));
+    assertThat(Arrays.toString(q.toArray()), is("[2, 3, 4]"));
+  }
+
+  @Test
+  public void testRemove() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(5);
+    for (int i = 0; i < 4; ++i) {
+      q.putLast(i);
+    }
+    q.getFirst();
+    q.getFirst();
+    // The content 2, 3, 4, 5, 6 wraps around the end of the array
+    for (int i = 4; i < 7; ++i) {
+      q.putLast(i);
+    }
+    assertThat(q.remove(4), is(true));
+    assertThat(q.remove(9), is(false));
+    assertThat(Arrays.toString(q.toArray()), is("[2, 3, 5, 6]"));
+    q.putLast(7);
+    assertThat(Arrays.toString(q.toArray()), is("[2, 3, 5, 6, 7]"));
+    Iterator<Integer> it = q.iterator();
+    while (it.hasNext()) {
+      if (it.next() % 2 == 1) {
+        it.remove();
+      }
+    }
+    assertThat(Arrays.toString(q.toArray()), is("[2, 6]"));
+    assertThat(q.getFirst(), is(2));
+    assertThat(q.getFirst(), is(6));
+    assertThat(q.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testIndexedAccess() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(4);
+    for (int i = 0; i < 6; ++i) {
+      if (q.isFull()) {
+        q.getFirst();
+      }
+      q.putLast(i);
+    }
+    // Wrapped with the elements 2..5 at the indexes 2, 3, 0, 1
+    assertThat(q.get(0), is(2));
+    assertThat(q.get(3), is(5));
+    final List<Integer> values = new ArrayList<Integer>();
+    q.forEach(values::add);
+    assertThat(values.toString(), is("[2, 3, 4, 5]"));
+    Integer[] dst = new Integer[3];
+    assertThat(q.copyTo(dst), is(3));
+    assertThat(Arrays.toString(dst), is("[2, 3, 4]"));
+    assertThat(q.size(), is(4));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testGetOutOfBounds() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(4);
+    q.putLast(1);
+    q.get(1);
+  }
+
+  @Test
+  public void testSpliterator() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(1000);
+    q.setOverwriteOldest(true);
+    for (int i = 1; i <= 1500; ++i) {
+      q.putLast(i);
+    }
+    Spliterator<Integer> spliterator = q.spliterator();
+    assertThat(spliterator.estimateSize(), is(1000L));
+    assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED),
+        is(true));
+    assertThat(spliterator.trySplit().estimateSize(), is(500L));
+    assertThat(q.parallelStream().mapToLong(i -> i).sum(), is(1000L * (501 + 1500) / 2));
+    assertThat(q.stream().findFirst().get(), is(501));
+  }
+
+  @Test
+  public void testPowerOfTwoWrap() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(4);
+    int next = 0;
+    for (int i = 0; i < 100; ++i) {
+      q.putLast(i);
+      if (q.isFull()) {
+        assertThat(q.getFirst(), is(next++));
+        assertThat(q.getFirst(), is(next++));
+        assertThat(q.getFirst(), is(next++));
+      }
+    }
+    assertThat(window(q), is("[99]"));
+  }
+
+  @Test
+  public void testGrow() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(3);
+    q.setGrowLimit(10);
+    q.putLast(0);
+    q.putLast(1);
+    q.getFirst();
+    q.putLast(2);
+    q.putLast(3);
+    // Full and wrapped, next insert doubles the capacity
+    q.putLast(4);
+    assertThat(q.getMaxSize(), is(6));
+    assertThat(window(q), is("[1, 2, 3, 4]"));
+    assertThat(q.putAll(new Integer[]{5, 6, 7, 8, 9, 10, 11}, 0, 7), is(6));
+    assertThat(q.getMaxSize(), is(10));
+    assertThat(q.isFull(), is(true));
+    assertThat(window(q), is("[1, 2, 3, 4, 5, 6, 7, 8, 9, 10]"));
+    assertThat(q.offer(11), is(false));
+    q.setOverwriteOldest(true);
+    q.putLast(11);
+    assertThat(q.getFirst(), is(2));
+  }
+
+  @Test(timeout = 10000)
+  public void testTimedPollAndOffer() throws Exception {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(1);
+    assertThat(q.poll(10, TimeUnit.MILLISECONDS), is(nullValue()));
+    assertThat(q.offer(1, 10, TimeUnit.MILLISECONDS), is(true));
+    assertThat(q.offer(2, 10, TimeUnit.MILLISECONDS), is(false));
+    assertThat(q.poll(10, TimeUnit.MILLISECONDS), is(1));
+  }
+
+  @Test(timeout = 60000)
+  public void testBlockingWaitStrategy() throws Exception {
+    runProducerConsumer(new BlockingWaitStrategy(), 100000);
+  }
+
+  @Test(timeout = 60000)
+  public void testBusySpinWaitStrategy() throws Exception {
+    // Few elements since spinning threads only hand over when preempted on a single core
+    runProducerConsumer(new BusySpinWaitStrategy(), 1000);
+  }
+
+  @Test(timeout = 60000)
+  public void testSpinYieldWaitStrategy() throws Exception {
+    runProducerConsumer(new SpinYieldWaitStrategy(10), 100000);
+  }
+
+  @Test(timeout = 60000)
+  public void testParkBackoffWaitStrategy() throws Exception {
+    runProducerConsumer(new ParkBackoffWaitStrategy(10, 10, 1000, 100000), 100000);
+  }
+
+  private static void runProducerConsumer(WaitStrategy waitStrategy, final int n) throws Exception {
+    final QueueBuffer<Integer> q = new QueueBuffer<Integer>(16, waitStrategy);
+    final AtomicReference<String> error = new AtomicReference<String>();
+    Thread consumer = new Thread() {
+      @Override
+      public void run() {
+        try {
+          for (int expected = 0; expected < n; ++expected) {
+            Integer i = q.take();
+            if (i != expected) {
+              error.set("Expected " + expected + " but got " + i);
+              return;
+            }
+          }
+        } catch (InterruptedException e) {
+          error.set("Interrupted");
+        }
+      }
+    };
+    consumer.start();
+    for (int i = 0; i < n; ++i) {
+      q.put(i);
+    }
+    consumer.join();
+    assertThat(error.get(), is(nullValue()));
+    assertThat(q.isEmpty(), is(true));
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class QueueMetricsTest {
+  private static class Sample {
+    int value;
+  }
+
+  @Test
+  public void testQueueBuffer() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(4);
+    QueueMetrics metrics = new QueueMetrics();
+    q.setMetrics(metrics);
+    assertThat(q.getFirst() == null, is(true));
+    for (int i = 0; i < 5; ++i) {
+      q.offer(i);
+    }
+    q.getFirst();
+    q.setOverwriteOldest(true);
+    q.putAll(new Integer[]{7, 8}, 0, 2);
+    assertThat(q.drainTo(new Integer[10], 0, 10), is(4));
+    QueueMetrics.Snapshot s = metrics.snapshot();
+    assertThat(s.getEnqueueCount(), is(6L));
+    assertThat(s.getDequeueCount(), is(5L));
+    assertThat(s.getEvictedCount(), is(1L));
+    assertThat(s.getFullCount(), is(1L));
+    assertThat(s.getEmptyCount(), is(1L));
+    assertThat(s.getHighWaterMark(), is(4));
+    long[] histogram = s.getOccupancyHistogram();
+    // Sizes after each operation: 1, 2, 3, 4, 3, 4 and 0
+    assertThat(histogram[0], is(1L));
+    assertThat(histogram[1], is(1L));
+    assertThat(histogram[2], is(3L));
+    assertThat(histogram[3], is(2L));
+    metrics.reset();
+    assertThat(metrics.getEnqueueCount(), is(0L));
+    assertThat(metrics.getOccupancyHistogram()[3], is(0L));
+  }
+
+  @Test
+  public void testRemove() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(4);
+    QueueMetrics metrics = new QueueMetrics();
+    q.setMetrics(metrics);
+    for (int i = 0; i < 4; ++i) {
+      q.putLast(i);
+    }
+    assertThat(q.remove(1), is(true));
+    Iterator<Integer> it = q.iterator();
+    it.next();
+    it.remove();
+    assertThat(metrics.getEnqueueCount() - metrics.getDequeueCount(), is((long) q.size()));
+    assertThat(metrics.getDequeueCount(), is(2L));
+  }
+
+  @Test
+  public void testPutAllOverwrite() {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(3);
+    QueueMetrics metrics = new QueueMetrics();
+    q.setMetrics(metrics);
+    q.setOverwriteOldest(true);
+    q.putLast(0);
+    // 1 and 2 are skipped, 0 is evicted
+    assertThat(q.putAll(new Integer[]{1, 2, 3, 4, 5}, 0, 5), is(5));
+    assertThat(metrics.getEnqueueCount(), is(6L));
+    assertThat(metrics.getEvictedCount(), is(3L));
+    assertThat(metrics.getEnqueueCount() - metrics.getDequeueCount() - metrics.getEvictedCount(), is((long) q.size()));
+  }
+
+  @Test
+  public void testMutableElementQueue() {
+    MutableElementQueue<Sample> q = new MutableElementQueue<Sample>(new Sample[2], Sample::new);
+    QueueMetrics metrics = new QueueMetrics();
+    q.setMetrics(metrics);
+    q.putLast().value = 1;
+    assertThat(q.putAll(s -> s.value = 2, 2), is(1));
+    q.getFirst();
+    q.getFirst();
+    q.getFirst();
+    assertThat(metrics.getEnqueueCount(), is(2L));
+    assertThat(metrics.getDequeueCount(), is(2L));
+    assertThat(metrics.getFullCount(), is(1L));
+    assertThat(metrics.getEmptyCount(), is(1L));
+    assertThat(metrics.getHighWaterMark(), is(2));
+  }
+
+  @Test
+  public void testBucketLowerBound() {
+    assertThat(QueueMetrics.getBucketLowerBound(0), is(0));
+    assertThat(QueueMetrics.getBucketLowerBound(1), is(1));
+    assertThat(QueueMetrics.getBucketLowerBound(4), is(8));
+  }
+
+  @Test
+  public void testJmx() throws Exception {
+    QueueBuffer<Integer> q = new QueueBuffer<Integer>(4);
+    QueueMetrics metrics = new QueueMetrics();
+    q.setMetrics(metrics);
+    metrics.register("test");
+    try {
+      q.putLast(1);
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName("se.marell.dcommons:type=QueueMetrics,name=\"test\"");
+      assertThat(server.getAttribute(name, "EnqueueCount"), is((Object) 1L));
+      assertThat(server.getAttribute(name, "HighWaterMark"), is((Object) 1));
+    } finally {
+      metrics.unregister();
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class RunningStatisticsTest {
+  @Test
+  public void testAdd() {
+    RunningStatistics s = new RunningStatistics();
+    assertThat(Double.isNaN(s.getMean()), is(true));
+    assertThat(Double.isNaN(s.getMin()), is(true));
+    for (double v : new double[]{2, 4, 4, 4, 5, 5, 7, 9}) {
+      s.add(v);
+    }
+    assertThat(s.getCount(), is(8L));
+    assertThat(s.getMean(), is(5.0));
+    assertThat(s.getVariance(), is(4.0));
+    assertThat(s.getStandardDeviation(), is(2.0));
+    assertThat(s.getMin(), is(2.0));
+    assertThat(s.getMax(), is(9.0));
+    s.clear();
+    assertThat(s.getCount(), is(0L));
+    assertThat(Double.isNaN(s.getVariance()), is(true));
+  }
+
+  @Test
+  public void testLargeMean() {
+    RunningStatistics s = new RunningStatistics();
+    for (int i = 0; i < 1000; ++i) {
+      s.add(1e9 + i % 2);
+    }
+    assertEquals(0.25, s.getVariance(), 1e-6);
+  }
+
+  @Test
+  public void testMerge() {
+    Random random = new Random(17);
+    RunningStatistics all = new RunningStatistics();
+    RunningStatistics merged = new RunningStatistics();
+    for (int part = 0; part < 5; ++part) {
+      RunningStatistics s = new RunningStatistics();
+      for (int i = 0; i < part * 100; ++i) {
+        double v = random.nextGaussian() * 10 + part;
+        s.add(v);
+        all.add(v);
+      }
+      merged.merge(s);
+    }
+    assertThat(merged.getCount(), is(all.getCount()));
+    assertEquals(all.getMean(), merged.getMean(), 1e-12);
+    assertEquals(all.getVariance(), merged.getVariance(), 1e-9);
+    assertThat(merged.getMin(), is(all.getMin()));
+    assertThat(merged.getMax(), is(all.getMax()));
+  }
+}
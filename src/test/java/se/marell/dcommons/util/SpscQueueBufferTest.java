@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class SpscQueueBufferTest {
+  @Test
+  public void testPutAndGet() {
+    SpscQueueBuffer<Integer> q = new SpscQueueBuffer<Integer>(3);
+    assertThat(q.getMaxSize(), is(3));
+    assertThat(q.isEmpty(), is(true));
+    assertThat(q.getFirst(), is(nullValue()));
+    assertThat(q.putLast(1), is(true));
+    assertThat(q.putLast(2), is(true));
+    assertThat(q.putLast(3), is(true));
+    assertThat(q.isFull(), is(true));
+    assertThat(q.putLast(4), is(false));
+    assertThat(q.size(), is(3));
+    assertThat(q.getFree(), is(0));
+    assertThat(q.peek(), is(1));
+    assertThat(q.getFirst(), is(1));
+    assertThat(q.getFirst(), is(2));
+    assertThat(q.getFirst(), is(3));
+    assertThat(q.getFirst(), is(nullValue()));
+    assertThat(q.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testWrap() {
+    SpscQueueBuffer<Integer> q = new SpscQueueBuffer<Integer>(5);
+    int next = 0;
+    for (int i = 0; i < 100; ++i) {
+      assertThat(q.putLast(i), is(true));
+      if (q.size() == 4) {
+        for (int j = 0; j < 3; ++j) {
+          assertThat(q.getFirst(), is(next++));
+        }
+      }
+    }
+    while (!q.isEmpty()) {
+      assertThat(q.getFirst(), is(next++));
+    }
+    assertThat(next, is(100));
+  }
+
+  @Test(timeout = 60000)
+  public void testProducerConsumer() throws Exception {
+    final int n = 1000000;
+    final SpscQueueBuffer<Integer> q = new SpscQueueBuffer<Integer>(64);
+    final AtomicReference<String> error = new AtomicReference<String>();
+    Thread consumer = new Thread() {
+      @Override
+      public void run() {
+        int expected = 0;
+        while (expected < n) {
+          Integer i = q.getFirst();
+          if (i == null) {
+            Thread.yield();
+          } else if (i != expected++) {
+            error.set("Expected " + (expected - 1) + " but got " + i);
+            return;
+          }
+        }
+      }
+    };
+    consumer.start();
+    for (int i = 0; i < n; ++i) {
+      while (!q.putLast(i)) {
+        Thread.yield();
+      }
+    }
+    consumer.join();
+    assertThat(error.get(), is(nullValue()));
+    assertThat(q.isEmpty(), is(true));
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+/**
+ * Compares hand-over throughput between one producer and one consumer thread for QueueBuffer and SpscQueueBuffer.
+ */
+public class SpscQueueBufferThroughputDemo {
+  private static final int N = 5000000;
+  private static final int SIZE = 1024;
+  private static final Integer ELEMENT = 17;
+
+  public static void main(String[] args) throws InterruptedException {
+    for (int round = 0; round < 5; ++round) {
+      System.out.printf("QueueBuffer:     %6.1f Mops/s%n", runQueueBuffer());
+      System.out.printf("SpscQueueBuffer: %6.1f Mops/s%n", runSpscQueueBuffer());
+    }
+  }
+
+  private static double runQueueBuffer() throws InterruptedException {
+    final QueueBuffer<Integer> q = new QueueBuffer<Integer>(SIZE);
+    Thread consumer = new Thread() {
+      @Override
+      public void run() {
+        int n = 0;
+        while (n < N) {
+          if (q.getFirst() != null) {
+            ++n;
+          } else {
+            Thread.yield();
+          }
+        }
+      }
+    };
+    long start = System.nanoTime();
+    consumer.start();
+    for (int i = 0; i < N; ) {
+      boolean inserted = false;
+      synchronized (q) {
+        if (!q.isFull()) {
+          q.putLast(ELEMENT);
+          inserted = true;
+        }
+      }
+      if (inserted) {
+        ++i;
+      } else {
+        Thread.yield();
+      }
+    }
+    consumer.join();
+    return N * 1000.0 / (System.nanoTime() - start);
+  }
+
+  private static double runSpscQueueBuffer() throws InterruptedException {
+    final SpscQueueBuffer<Integer> q = new SpscQueueBuffer<Integer>(SIZE);
+    Thread consumer = new Thread() {
+      @Override
+      public void run() {
+        int n = 0;
+        while (n < N) {
+          if (q.getFirst() != null) {
+            ++n;
+          } else {
+            Thread.yield();
+          }
+        }
+      }
+    };
+    long start = System.nanoTime();
+    consumer.start();
+    for (int i = 0; i < N; ) {
+      if (q.putLast(ELEMENT)) {
+        ++i;
+      } else {
+        Thread.yield();
+      }
+    }
+    consumer.join();
+    return N * 1000.0 / (System.nanoTime() - start);
+  }
+}
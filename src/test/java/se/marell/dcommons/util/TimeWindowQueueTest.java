@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+import se.marell.dcommons.time.FixedTimeSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class TimeWindowQueueTest {
+  @Test
+  public void testExpiry() {
+    FixedTimeSource ts = new FixedTimeSource(0);
+    TimeWindowQueue<Integer> q = new TimeWindowQueue<Integer>(10, 1000, ts);
+    final List<String> calls = new ArrayList<String>();
+    q.setExpiryListener(expired -> calls.add(expired.toString()));
+    q.putLast(1);
+    q.putLast(2);
+    ts.advanceTime(500);
+    q.putLast(3);
+    assertThat(q.size(), is(3));
+    ts.advanceTime(499);
+    assertThat(q.peek(), is(1));
+    ts.advanceTime(1);
+    assertThat(q.size(), is(1));
+    assertThat(q.getFirstTimestamp(), is(500L));
+    ts.advanceTime(500);
+    assertThat(q.isEmpty(), is(true));
+    assertThat(q.getFirst(), is(nullValue()));
+    assertThat(calls.toString(), is("[[1, 2], [3]]"));
+  }
+
+  @Test
+  public void testFull() {
+    FixedTimeSource ts = new FixedTimeSource(0);
+    TimeWindowQueue<Integer> q = new TimeWindowQueue<Integer>(2, 100, ts);
+    assertThat(q.offer(1), is(true));
+    ts.advanceTime(50);
+    assertThat(q.offer(2), is(true));
+    assertThat(q.offer(3), is(false));
+    assertThat(q.isFull(), is(true));
+    ts.advanceTime(50);
+    // The first element expires and makes room
+    assertThat(q.offer(3), is(true));
+    List<Integer> values = new ArrayList<Integer>();
+    for (Integer i : q) {
+      values.add(i);
+    }
+    assertThat(values.toString(), is("[2, 3]"));
+  }
+
+  @Test
+  public void testTimeStepsBack() {
+    FixedTimeSource ts = new FixedTimeSource(1000);
+    TimeWindowQueue<Integer> q = new TimeWindowQueue<Integer>(4, 100, ts);
+    q.putLast(1);
+    ts.setTimeMillis(900);
+    q.putLast(2);
+    ts.setTimeMillis(1099);
+    assertThat(q.size(), is(2));
+    ts.setTimeMillis(1100);
+    assertThat(q.size(), is(0));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testPutLastFull() {
+    TimeWindowQueue<Integer> q = new TimeWindowQueue<Integer>(1, 100, new FixedTimeSource(0));
+    q.putLast(1);
+    q.putLast(2);
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class WindowedMinMaxTest {
+  @Test
+  public void testMinMax() {
+    Random random = new Random(17);
+    for (int length = 1; length < 10; ++length) {
+      WindowedMinMax w = new WindowedMinMax(length);
+      assertThat(Double.isNaN(w.getMin()), is(true));
+      double[] values = new double[1000];
+      for (int i = 0; i < values.length; ++i) {
+        values[i] = random.nextInt(10);
+        w.add(values[i]);
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int j = Math.max(0, i - length + 1); j <= i; ++j) {
+          min = Math.min(min, values[j]);
+          max = Math.max(max, values[j]);
+        }
+        assertThat(w.getMin(), is(min));
+        assertThat(w.getMax(), is(max));
+        assertThat(w.size(), is(Math.min(i + 1, length)));
+      }
+    }
+  }
+
+  @Test
+  public void testMonotonic() {
+    WindowedMinMax w = new WindowedMinMax(3);
+    for (int i = 0; i < 10; ++i) {
+      w.add(i);
+      assertThat(w.getMin(), is((double) Math.max(0, i - 2)));
+      assertThat(w.getMax(), is((double) i));
+    }
+    w.clear();
+    assertThat(w.size(), is(0));
+    w.add(-1);
+    assertThat(w.getMax(), is(-1.0));
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026 Daniel Marell
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package se.marell.dcommons.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class WindowedStatisticsTest {
+  @Test
+  public void testWindow() {
+    Random random = new Random(17);
+    for (int length = 1; length < 10; ++length) {
+      WindowedStatistics s = new WindowedStatistics(length);
+      double[] values = new double[1000];
+      for (int i = 0; i < values.length; ++i) {
+        values[i] = 1000 + random.nextGaussian();
+        s.add(values[i]);
+        RunningStatistics expected = new RunningStatistics();
+        for (int j = Math.max(0, i - length + 1); j <= i; ++j) {
+          expected.add(values[j]);
+        }
+        assertThat(s.getCount(), is((int) expected.getCount()));
+        assertEquals(expected.getMean(), s.getMean(), 1e-9);
+        assertEquals(expected.getVariance(), s.getVariance(), 1e-9);
+        assertThat(s.getMin(), is(expected.getMin()));
+        assertThat(s.getMax(), is(expected.getMax()));
+      }
+    }
+  }
+
+  @Test
+  public void testSnapshot() {
+    WindowedStatistics a = new WindowedStatistics(4);
+    WindowedStatistics b = new WindowedStatistics(4);
+    assertThat(a.snapshot().getCount(), is(0L));
+    for (double v : new double[]{100, 2, 4, 4, 4}) {
+      a.add(v);
+    }
+    for (double v : new double[]{5, 5, 7, 9}) {
+      b.add(v);
+    }
+    RunningStatistics all = a.snapshot();
+    all.merge(b.snapshot());
+    assertThat(all.getCount(), is(8L));
+    assertEquals(5, all.getMean(), 1e-12);
+    assertEquals(4, all.getVariance(), 1e-12);
+    assertThat(all.getMin(), is(2.0));
+    assertThat(all.getMax(), is(9.0));
+  }
+
+  @Test
+  public void testClear() {
+    WindowedStatistics s = new WindowedStatistics(3);
+    s.add(1);
+    s.clear();
+    assertThat(s.getCount(), is(0));
+    assertThat(Double.isNaN(s.getMean()), is(true));
+    s.add(2);
+    assertThat(s.getMean(), is(2.0));
+    assertThat(s.getVariance(), is(0.0));
+  }
+}